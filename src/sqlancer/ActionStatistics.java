@@ -0,0 +1,111 @@
+package sqlancer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects, for each {@link AbstractAction}, how often its statements were executed, failed, were retried, or were
+ * ignored, together with a {@link LatencyHistogram}. This allows determining which actions take up most of the time
+ * spent on generating databases, for example, to tune the number of times they are performed.
+ */
+public final class ActionStatistics {
+
+    private static final Map<AbstractAction<?>, ActionStatistics> STATISTICS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final LongAdder nrExecuted = new LongAdder();
+    private final LongAdder nrFailed = new LongAdder();
+    private final LongAdder nrRetried = new LongAdder();
+    private final LongAdder nrIgnored = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    private ActionStatistics(String name) {
+        this.name = name;
+    }
+
+    public static ActionStatistics get(AbstractAction<?> action) {
+        return STATISTICS.computeIfAbsent(action, a -> new ActionStatistics(getName(a)));
+    }
+
+    private static String getName(AbstractAction<?> action) {
+        if (action instanceof Enum) {
+            Enum<?> constant = (Enum<?>) action;
+            Class<?> actionClass = constant.getDeclaringClass();
+            String owner = actionClass.getEnclosingClass() == null ? actionClass.getSimpleName()
+                    : actionClass.getEnclosingClass().getSimpleName();
+            return owner + "." + constant.name();
+        }
+        return action.toString();
+    }
+
+    /**
+     * Records a statement of the action that was executed.
+     *
+     * @param nanos
+     *            the time needed to generate and execute the statement
+     * @param success
+     *            whether the statement was executed successfully
+     * @param isRetry
+     *            whether the statement was generated since a previous statement of the action failed
+     */
+    public void record(long nanos, boolean success, boolean isRetry) {
+        nrExecuted.increment();
+        if (!success) {
+            nrFailed.increment();
+        }
+        if (isRetry) {
+            nrRetried.increment();
+        }
+        totalNanos.add(nanos);
+        latencies.record(nanos);
+    }
+
+    /**
+     * Records a statement of the action that was discarded, since its generation or execution threw an
+     * {@link IgnoreMeException}.
+     *
+     * @param nanos
+     *            the time spent before the statement was discarded
+     */
+    public void recordIgnored(long nanos) {
+        nrIgnored.increment();
+        totalNanos.add(nanos);
+    }
+
+    static void appendCsv(StringBuilder sb) {
+        for (ActionStatistics s : getSortedStatistics()) {
+            sb.append(String.format("action,%s,%d,%d,%d,%d,%.3f,%.3f%n", s.name, s.nrExecuted.sum(), s.nrFailed.sum(),
+                    s.nrIgnored.sum(), s.totalNanos.sum() / 1_000_000, s.latencies.getPercentileNanos(0.5) / 1e6,
+                    s.latencies.getPercentileNanos(0.99) / 1e6));
+        }
+    }
+
+    private static List<ActionStatistics> getSortedStatistics() {
+        List<ActionStatistics> statistics = new ArrayList<>(STATISTICS.values());
+        statistics.sort((a, b) -> Long.compare(b.totalNanos.sum(), a.totalNanos.sum()));
+        return statistics;
+    }
+
+    /**
+     * Returns a table with the statistics of all actions that were performed so far, sorted by the total time spent on
+     * them.
+     *
+     * @return the formatted statistics
+     */
+    public static String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-40s %10s %10s %10s %10s %12s %10s %10s%n", "action", "executed", "failed", "retried",
+                "ignored", "total ms", "p50 ms", "p99 ms"));
+        for (ActionStatistics s : getSortedStatistics()) {
+            sb.append(String.format("%-40s %10d %10d %10d %10d %12d %10.3f %10.3f%n", s.name, s.nrExecuted.sum(),
+                    s.nrFailed.sum(), s.nrRetried.sum(), s.nrIgnored.sum(), s.totalNanos.sum() / 1_000_000,
+                    s.latencies.getPercentileNanos(0.5) / 1e6, s.latencies.getPercentileNanos(0.99) / 1e6));
+        }
+        return sb.toString();
+    }
+
+}
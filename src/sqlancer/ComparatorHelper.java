@@ -3,10 +3,12 @@ package sqlancer;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import sqlancer.common.query.ExpectedErrors;
@@ -15,6 +17,9 @@ import sqlancer.common.query.SQLancerResultSet;
 
 public final class ComparatorHelper {
 
+    private static final Pattern TRAILING_ZEROS = Pattern.compile("[\\.]0+$");
+    private static final char COLUMN_SEPARATOR = '|';
+
     private ComparatorHelper() {
     }
 
@@ -38,6 +43,70 @@ public final class ComparatorHelper {
 
     public static List<String> getResultSetFirstColumnAsString(String queryString, ExpectedErrors errors,
             SQLGlobalState<?, ?> state) throws SQLException {
+        List<String> resultSet = new ArrayList<>();
+        readFirstColumn(queryString, errors, state, resultSet::add);
+        return resultSet;
+    }
+
+    /**
+     * Gets the rows of the query's result set, each represented as a single string that contains all (normalized)
+     * column values, see {@link #getRowString}. Passing these rows to {@link #assumeResultSetsAreEqual} compares all
+     * columns, rather than only the first one.
+     *
+     * @param queryString
+     *            the query to execute
+     * @param errors
+     *            the errors that are expected for the query
+     * @param state
+     *            the current global state
+     *
+     * @return the rows of the result set
+     *
+     * @throws SQLException
+     *             if the connection cannot create a statement
+     */
+    public static List<String> getResultSetRowsAsString(String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        readResultSet(queryString, errors, state, result -> consumeRows(result, rows::add));
+        return rows;
+    }
+
+    /**
+     * Computes the fingerprint of the rows of the query's result set, see {@link #getResultSetRowsAsString}, without
+     * materializing the result set.
+     *
+     * @param queryString
+     *            the query to execute
+     * @param errors
+     *            the errors that are expected for the query
+     * @param state
+     *            the current global state
+     *
+     * @return the fingerprint of the rows
+     *
+     * @throws SQLException
+     *             if the connection cannot create a statement
+     */
+    public static MultisetFingerprint getResultSetRowsFingerprint(String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        MultisetFingerprint fingerprint = new MultisetFingerprint();
+        readResultSet(queryString, errors, state, result -> consumeRows(result, fingerprint::add));
+        return fingerprint;
+    }
+
+    @FunctionalInterface
+    private interface ResultSetReader {
+        void read(SQLancerResultSet result) throws SQLException;
+    }
+
+    private static void readFirstColumn(String queryString, ExpectedErrors errors, SQLGlobalState<?, ?> state,
+            Consumer<String> consumer) throws SQLException {
+        readResultSet(queryString, errors, state, result -> consumeFirstColumn(result, consumer));
+    }
+
+    private static void readResultSet(String queryString, ExpectedErrors errors, SQLGlobalState<?, ?> state,
+            ResultSetReader reader) throws SQLException {
         if (state.getOptions().logEachSelect()) {
             // TODO: refactor me
             state.getLogger().writeCurrent(queryString);
@@ -50,21 +119,13 @@ public final class ComparatorHelper {
         }
         boolean canonicalizeString = state.getOptions().canonicalizeSqlString();
         SQLQueryAdapter q = new SQLQueryAdapter(queryString, errors, true, canonicalizeString);
-        List<String> resultSet = new ArrayList<>();
         SQLancerResultSet result = null;
         try {
             result = q.executeAndGet(state);
             if (result == null) {
                 throw new IgnoreMeException();
             }
-            while (result.next()) {
-                String resultTemp = result.getString(1);
-                if (resultTemp != null) {
-                    resultTemp = resultTemp.replaceAll("[\\.]0+$", ""); // Remove the trailing zeros as many DBMS treat
-                    // it as non-bugs
-                }
-                resultSet.add(resultTemp);
-            }
+            reader.read(result);
         } catch (Exception e) {
             if (e instanceof IgnoreMeException) {
                 throw e;
@@ -82,9 +143,141 @@ public final class ComparatorHelper {
                 result.close();
             }
         }
+    }
+
+    private static void consumeFirstColumn(SQLancerResultSet result, Consumer<String> consumer) throws SQLException {
+        while (result.next()) {
+            // Remove the trailing zeros as many DBMS treat it as non-bugs
+            consumer.accept(removeTrailingZeros(result.getString(1)));
+        }
+    }
+
+    private static void consumeRows(SQLancerResultSet result, Consumer<String> consumer) throws SQLException {
+        int nrColumns = result.getColumnCount();
+        String[] values = new String[nrColumns];
+        while (result.next()) {
+            for (int i = 0; i < nrColumns; i++) {
+                values[i] = removeTrailingZeros(result.getString(i + 1));
+            }
+            consumer.accept(getRowString(values));
+        }
+    }
+
+    /**
+     * Represents a row as a single string. A row with a single column is represented by its value, like in the lists
+     * that contain only the first column. Otherwise, the values are separated by "|", and "|" and "\" in values are
+     * escaped by a "\", so that distinct rows are represented by distinct strings; NULL is represented by "\N".
+     *
+     * @param values
+     *            the (normalized) values of the row
+     *
+     * @return the string representation of the row
+     */
+    static String getRowString(String... values) {
+        if (values.length == 1) {
+            return values[0];
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i != 0) {
+                sb.append(COLUMN_SEPARATOR);
+            }
+            String value = values[i];
+            if (value == null) {
+                sb.append("\\N");
+                continue;
+            }
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == COLUMN_SEPARATOR || c == '\\') {
+                    sb.append('\\');
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Removes a decimal point that is only followed by zeros (e.g., "1.000" becomes "1"). This is equivalent to
+     * {@code value.replaceAll("[\\.]0+$", "")}, but avoids the regular expression for values that do not end with a
+     * zero, which are the vast majority.
+     *
+     * @param value
+     *            the value to normalize, or null
+     *
+     * @return the normalized value
+     */
+    static String removeTrailingZeros(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        int end = value.length() - 1;
+        char last = value.charAt(end);
+        if (last != '0') {
+            // "$" also matches before a final line terminator
+            return last == '\n' || last == '\r' || last == '\u0085' || last == '\u2028' || last == '\u2029'
+                    ? TRAILING_ZEROS.matcher(value).replaceAll("") : value;
+        }
+        int i = end;
+        while (i > 0 && value.charAt(i - 1) == '0') {
+            i--;
+        }
+        if (i > 0 && value.charAt(i - 1) == '.') {
+            return value.substring(0, i - 1);
+        }
+        return value;
+    }
+
+    /**
+     * Executes several queries and concatenates the values of their first columns. If the connection supports it, the
+     * queries are sent in a single round-trip, see {@link SQLQueryAdapter#executeAndConsumeAll}.
+     *
+     * @param queryStrings
+     *            the queries, which must not be terminated by a semicolon
+     * @param errors
+     *            the errors that are expected for any of the queries
+     * @param state
+     *            the current global state
+     *
+     * @return the concatenated values of the first column of each query's result set
+     *
+     * @throws SQLException
+     *             if the connection cannot create a statement
+     */
+    public static List<String> getResultSetsFirstColumnAsString(List<String> queryStrings, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        List<String> resultSet = new ArrayList<>();
+        readFirstColumns(queryStrings, errors, state, resultSet::add);
         return resultSet;
     }
 
+    private static void readFirstColumns(List<String> queryStrings, ExpectedErrors errors, SQLGlobalState<?, ?> state,
+            Consumer<String> consumer) throws SQLException {
+        logSelects(queryStrings, state);
+        readResultSets(queryStrings, errors, state, result -> consumeFirstColumn(result, consumer));
+    }
+
+    private static void logSelects(List<String> queryStrings, SQLGlobalState<?, ?> state) {
+        if (state.getOptions().logEachSelect()) {
+            for (String queryString : queryStrings) {
+                state.getLogger().writeCurrent(queryString);
+            }
+            try {
+                state.getLogger().getCurrentFileWriter().flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static void readResultSets(List<String> queryStrings, ExpectedErrors errors, SQLGlobalState<?, ?> state,
+            ResultSetReader reader) throws SQLException {
+        if (!SQLQueryAdapter.executeAndConsumeAll(state, queryStrings, errors, (i, result) -> reader.read(result))) {
+            throw new IgnoreMeException();
+        }
+    }
+
     public static void assumeResultSetsAreEqual(List<String> resultSet, List<String> secondResultSet,
             String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state) {
         if (resultSet.size() != secondResultSet.size()) {
@@ -104,28 +297,59 @@ public final class ComparatorHelper {
             throw new AssertionError(assertionMessage);
         }
 
-        Set<String> firstHashSet = new HashSet<>(resultSet);
-        Set<String> secondHashSet = new HashSet<>(secondResultSet);
-
         boolean validateResultSizeOnly = state.getOptions().validateResultSizeOnly();
-        if (!validateResultSizeOnly && !firstHashSet.equals(secondHashSet)) {
-            Set<String> firstResultSetMisses = new HashSet<>(firstHashSet);
-            firstResultSetMisses.removeAll(secondHashSet);
-            Set<String> secondResultSetMisses = new HashSet<>(secondHashSet);
-            secondResultSetMisses.removeAll(firstHashSet);
-
-            String queryFormatString = "-- Query: \"%s\"; It misses: \"%s\"";
-            String firstQueryString = String.format(queryFormatString, originalQueryString, firstResultSetMisses);
-            String secondQueryString = String.format(queryFormatString, String.join(";", combinedString),
-                    secondResultSetMisses);
-            // update the SELECT queries to be logged at the bottom of the error log file
-            state.getState().getLocalState()
-                    .log(String.format("%s" + System.lineSeparator() + "%s", firstQueryString, secondQueryString));
-            String assertionMessage = String.format("The content of the result sets mismatch!" + System.lineSeparator()
-                    + "First query : \"%s\"" + System.lineSeparator() + "Second query: \"%s\"", originalQueryString,
-                    secondQueryString);
-            throw new AssertionError(assertionMessage);
+        if (validateResultSizeOnly) {
+            return;
+        }
+        // compare the result sets as multisets: +1 for each value of the first, -1 for each value of the second
+        Map<String, int[]> multiplicities = new HashMap<>();
+        for (String value : resultSet) {
+            multiplicities.computeIfAbsent(value, v -> new int[1])[0]++;
+        }
+        boolean mismatch = false;
+        for (String value : secondResultSet) {
+            int[] multiplicity = multiplicities.get(value);
+            if (multiplicity == null) {
+                mismatch = true;
+                break;
+            }
+            multiplicity[0]--;
+        }
+        if (!mismatch && multiplicities.values().stream().allMatch(multiplicity -> multiplicity[0] == 0)) {
+            return;
         }
+        List<String> firstResultSetMisses = getMultisetDifference(resultSet, secondResultSet);
+        List<String> secondResultSetMisses = getMultisetDifference(secondResultSet, resultSet);
+
+        String queryFormatString = "-- Query: \"%s\"; It misses: \"%s\"";
+        String firstQueryString = String.format(queryFormatString, originalQueryString, firstResultSetMisses);
+        String secondQueryString = String.format(queryFormatString, String.join(";", combinedString),
+                secondResultSetMisses);
+        // update the SELECT queries to be logged at the bottom of the error log file
+        state.getState().getLocalState()
+                .log(String.format("%s" + System.lineSeparator() + "%s", firstQueryString, secondQueryString));
+        String assertionMessage = String.format("The content of the result sets mismatch!" + System.lineSeparator()
+                + "First query : \"%s\"" + System.lineSeparator() + "Second query: \"%s\"", originalQueryString,
+                secondQueryString);
+        throw new AssertionError(assertionMessage);
+    }
+
+    // the values of the first multiset that are not matched by the second one, including duplicates
+    private static List<String> getMultisetDifference(List<String> first, List<String> second) {
+        Map<String, int[]> remaining = new HashMap<>();
+        for (String value : second) {
+            remaining.computeIfAbsent(value, v -> new int[1])[0]++;
+        }
+        List<String> difference = new ArrayList<>();
+        for (String value : first) {
+            int[] multiplicity = remaining.get(value);
+            if (multiplicity == null || multiplicity[0] == 0) {
+                difference.add(value);
+            } else {
+                multiplicity[0]--;
+            }
+        }
+        return difference;
     }
 
     public static void assumeResultSetsAreEqual(List<String> resultSet, List<String> secondResultSet,
@@ -150,10 +374,8 @@ public final class ComparatorHelper {
             combinedString.add(unionString);
             secondResultSet = getResultSetFirstColumnAsString(unionString, errors, state);
         } else {
-            secondResultSet = new ArrayList<>();
-            secondResultSet.addAll(getResultSetFirstColumnAsString(firstQueryString, errors, state));
-            secondResultSet.addAll(getResultSetFirstColumnAsString(secondQueryString, errors, state));
-            secondResultSet.addAll(getResultSetFirstColumnAsString(thirdQueryString, errors, state));
+            secondResultSet = getResultSetsFirstColumnAsString(
+                    List.of(firstQueryString, secondQueryString, thirdQueryString), errors, state);
             combinedString.add(firstQueryString);
             combinedString.add(secondQueryString);
             combinedString.add(thirdQueryString);
@@ -161,6 +383,89 @@ public final class ComparatorHelper {
         return secondResultSet;
     }
 
+    /**
+     * Gets the rows of the combined result sets of the three partitioning queries, analogous to
+     * {@link #getCombinedResultSet}, but representing each row by all of its columns, see
+     * {@link #getResultSetRowsAsString}.
+     *
+     * @param firstQueryString
+     *            the first partitioning query
+     * @param secondQueryString
+     *            the second partitioning query
+     * @param thirdQueryString
+     *            the third partitioning query
+     * @param combinedString
+     *            the list to which the executed query strings are added
+     * @param asUnion
+     *            whether to combine the queries using UNION ALL
+     * @param state
+     *            the current global state
+     * @param errors
+     *            the errors that are expected for the queries
+     *
+     * @return the rows of the combined result set
+     *
+     * @throws SQLException
+     *             if the connection cannot create a statement
+     */
+    public static List<String> getCombinedResultSetRows(String firstQueryString, String secondQueryString,
+            String thirdQueryString, List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state,
+            ExpectedErrors errors) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        readCombinedRows(firstQueryString, secondQueryString, thirdQueryString, combinedString, asUnion, state, errors,
+                rows::add);
+        return rows;
+    }
+
+    /**
+     * Computes the fingerprint of the rows of the combined result sets of the three partitioning queries, see
+     * {@link #getCombinedResultSetRows}, without materializing them.
+     *
+     * @param firstQueryString
+     *            the first partitioning query
+     * @param secondQueryString
+     *            the second partitioning query
+     * @param thirdQueryString
+     *            the third partitioning query
+     * @param combinedString
+     *            the list to which the executed query strings are added
+     * @param asUnion
+     *            whether to combine the queries using UNION ALL
+     * @param state
+     *            the current global state
+     * @param errors
+     *            the errors that are expected for the queries
+     *
+     * @return the fingerprint of the rows of the combined result set
+     *
+     * @throws SQLException
+     *             if the connection cannot create a statement
+     */
+    public static MultisetFingerprint getCombinedResultSetRowsFingerprint(String firstQueryString,
+            String secondQueryString, String thirdQueryString, List<String> combinedString, boolean asUnion,
+            SQLGlobalState<?, ?> state, ExpectedErrors errors) throws SQLException {
+        MultisetFingerprint fingerprint = new MultisetFingerprint();
+        readCombinedRows(firstQueryString, secondQueryString, thirdQueryString, combinedString, asUnion, state, errors,
+                fingerprint::add);
+        return fingerprint;
+    }
+
+    private static void readCombinedRows(String firstQueryString, String secondQueryString, String thirdQueryString,
+            List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state, ExpectedErrors errors,
+            Consumer<String> consumer) throws SQLException {
+        if (asUnion) {
+            String unionString = firstQueryString + " UNION ALL " + secondQueryString + " UNION ALL "
+                    + thirdQueryString;
+            combinedString.add(unionString);
+            readResultSet(unionString, errors, state, result -> consumeRows(result, consumer));
+        } else {
+            List<String> queryStrings = List.of(firstQueryString, secondQueryString, thirdQueryString);
+            logSelects(queryStrings, state);
+            readResultSets(queryStrings, errors, state, result -> consumeRows(result, consumer));
+            combinedString.addAll(queryStrings);
+        }
+    }
+
     public static List<String> getCombinedResultSetNoDuplicates(String firstQueryString, String secondQueryString,
             String thirdQueryString, List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state,
             ExpectedErrors errors) throws SQLException {
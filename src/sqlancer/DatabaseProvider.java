@@ -46,6 +46,73 @@ public interface DatabaseProvider<G extends GlobalState<O, ?, C>, O extends DBMS
 
     C createDatabase(G globalState) throws Exception;
 
+    /**
+     * Returns whether the provider implements {@link #takeSnapshot}, {@link #restoreSnapshot}, and
+     * {@link #deleteSnapshot}.
+     *
+     * @return whether snapshots are supported
+     */
+    default boolean supportsSnapshots() {
+        return false;
+    }
+
+    /**
+     * Saves the current state of the global state's database under the given name, so that {@link #restoreSnapshot} can
+     * later recreate it without executing the statements that led to it again. The {@link StatementReducer} uses
+     * snapshots to avoid replaying common statement prefixes for each candidate.
+     *
+     * A snapshot captures only the database, but not the state of the connection, such as session settings or temporary
+     * tables. If the statements of the global state's {@link StateToReproduce} could have created such a state, no
+     * snapshot is taken.
+     *
+     * @param globalState
+     *            the state whose database is saved
+     * @param snapshotName
+     *            the name of the snapshot; taking a snapshot with an existing name replaces it
+     *
+     * @return false if no snapshot was taken, since the state of the connection would be lost
+     *
+     * @throws Exception
+     *             if saving the database fails.
+     */
+    default boolean takeSnapshot(G globalState, String snapshotName) throws Exception {
+        return false;
+    }
+
+    /**
+     * Creates a database, like {@link #createDatabase}, whose state is that of a snapshot taken by
+     * {@link #takeSnapshot}.
+     *
+     * @param globalState
+     *            the state for which the database is created
+     * @param snapshotName
+     *            the name of the snapshot
+     *
+     * @return the connection to the restored database
+     *
+     * @throws Exception
+     *             if creating or restoring the database fails.
+     */
+    default C restoreSnapshot(G globalState, String snapshotName) throws Exception {
+        throw new UnsupportedOperationException(getDBMSName() + " does not support snapshots");
+    }
+
+    /**
+     * Deletes a snapshot taken by {@link #takeSnapshot}, if it exists. DBMSs that do not support snapshots have none to
+     * delete.
+     *
+     * @param globalState
+     *            the state whose database was saved
+     * @param snapshotName
+     *            the name of the snapshot
+     *
+     * @throws Exception
+     *             if deleting the snapshot fails.
+     */
+    default void deleteSnapshot(G globalState, String snapshotName) throws Exception {
+        // no snapshots were taken
+    }
+
     /**
      * The DBMS name is used to name the log directory and command to test the respective DBMS.
      *
@@ -0,0 +1,77 @@
+package sqlancer;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether testing a database should stop before all of its <code>--num-queries</code> checks were performed,
+ * since the recent checks indicate that it is unproductive. This is the case if most recent checks threw an
+ * {@link IgnoreMeException} (e.g., since all tables are empty), or if too few checks completed per second.
+ *
+ * Both criteria are evaluated over a sliding window of the most recent checks, so that a database is only retired after
+ * having been tested for at least the window size. The policy applies both to the regular test loop and to the loop of
+ * query plan guidance, in which the time spent mutating the tables counts toward the duration of the next check.
+ */
+final class DatabaseRetirementPolicy {
+
+    private final double maxIgnoredRatio;
+    private final double minCompletedChecksPerSecond;
+    private final boolean[] ignored;
+    // the time at which each check in the window completed
+    private final long[] timestamps;
+    private final LongSupplier nanoClock;
+    // the time at which the check before the window completed, or at which testing the database started
+    private long windowStart;
+    private int nrChecks;
+    private int nrIgnoredInWindow;
+
+    DatabaseRetirementPolicy(MainOptions options) {
+        this(options, System::nanoTime);
+    }
+
+    DatabaseRetirementPolicy(MainOptions options, LongSupplier nanoClock) {
+        int windowSize = options.getDatabaseRetirementWindow();
+        this.maxIgnoredRatio = options.getDatabaseRetirementIgnoredRatio();
+        this.minCompletedChecksPerSecond = options.getDatabaseRetirementMinChecksPerSecond();
+        this.ignored = new boolean[windowSize];
+        this.timestamps = new long[windowSize];
+        this.nanoClock = nanoClock;
+        this.windowStart = nanoClock.getAsLong();
+    }
+
+    boolean isEnabled() {
+        return ignored.length != 0;
+    }
+
+    void recordCheck(boolean wasIgnored) {
+        int index = nrChecks % ignored.length;
+        if (nrChecks >= ignored.length) {
+            windowStart = timestamps[index];
+            if (ignored[index]) {
+                nrIgnoredInWindow--;
+            }
+        }
+        ignored[index] = wasIgnored;
+        if (wasIgnored) {
+            nrIgnoredInWindow++;
+        }
+        timestamps[index] = nanoClock.getAsLong();
+        nrChecks++;
+    }
+
+    boolean shouldRetire() {
+        int windowSize = ignored.length;
+        if (nrChecks < windowSize) {
+            return false;
+        }
+        if ((double) nrIgnoredInWindow / windowSize > maxIgnoredRatio) {
+            return true;
+        }
+        if (minCompletedChecksPerSecond > 0) {
+            long newest = timestamps[(nrChecks - 1) % windowSize];
+            double seconds = Math.max(newest - windowStart, 1) / 1e9;
+            return (windowSize - nrIgnoredInWindow) / seconds < minCompletedChecksPerSecond;
+        }
+        return false;
+    }
+
+}
@@ -16,6 +16,7 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
     private StateToReproduce state;
     private Main.QueryManager<C> manager;
     private String databaseName;
+    private boolean schemaOutdated;
 
     public void setConnection(C con) {
         this.databaseConnection = con;
@@ -127,10 +128,14 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
     }
 
     public S getSchema() {
-        if (schema == null) {
+        if (schema == null || schemaOutdated) {
             try {
                 updateSchema();
             } catch (Exception e) {
+                if (e instanceof IgnoreMeException) {
+                    // the schema could not be read, for example, since a previous statement corrupted it
+                    throw (IgnoreMeException) e;
+                }
                 throw new AssertionError(e.getMessage());
             }
         }
@@ -141,8 +146,31 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
         this.schema = schema;
     }
 
+    /**
+     * Marks the schema as outdated, so that it is read again from the database only when it is requested next. Unlike
+     * {@link #updateSchema()}, this avoids one catalog round-trip per statement when several statements that could
+     * affect the schema are executed in a row.
+     */
+    public void invalidateSchema() {
+        schemaOutdated = true;
+    }
+
+    /**
+     * Notifies the schema, if it is up to date, that the given statement was executed, so that the row counts of the
+     * tables that it writes to are computed again when they are requested next.
+     *
+     * @param q
+     *            the statement that was executed
+     */
+    protected void registerWrite(Query<?> q) {
+        if (schema != null && !schemaOutdated) {
+            schema.registerWrite(q.getQueryString());
+        }
+    }
+
     public void updateSchema() throws Exception {
         setSchema(readSchema());
+        schemaOutdated = false;
         for (AbstractTable<?, ?, ?> table : schema.getDatabaseTables()) {
             table.recomputeCount();
         }
@@ -0,0 +1,51 @@
+package sqlancer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies that uses one bucket per power of two nanoseconds, so recording a latency is cheap and does
+ * not allocate, while the percentiles are accurate up to a factor of two. The histogram can be updated concurrently.
+ */
+public final class LatencyHistogram {
+
+    private static final int NR_BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NR_BUCKETS);
+
+    public void record(long nanos) {
+        buckets.incrementAndGet(getBucket(nanos));
+    }
+
+    static int getBucket(long nanos) {
+        return NR_BUCKETS - 1 - Long.numberOfLeadingZeros(Math.max(nanos, 1));
+    }
+
+    /**
+     * Returns the upper bound of the bucket that contains the given percentile of the recorded latencies.
+     *
+     * @param percentile
+     *            the percentile, between 0 and 1
+     *
+     * @return the upper bound in nanoseconds, or 0 if no latencies were recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        // the buckets can be updated concurrently, so the ranks are computed on a copy
+        long[] counts = new long[NR_BUCKETS];
+        Arrays.setAll(counts, buckets::get);
+        long total = Arrays.stream(counts).sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(percentile * total), 1);
+        long seen = 0;
+        for (int i = 0; i < NR_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == NR_BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        throw new AssertionError();
+    }
+
+}
@@ -4,7 +4,10 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -13,12 +16,19 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.JCommander.Builder;
@@ -30,6 +40,7 @@ import sqlancer.cockroachdb.CockroachDBProvider;
 import sqlancer.common.log.Loggable;
 import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLancerResultSet;
+import sqlancer.common.schema.CatalogCache;
 import sqlancer.databend.DatabendProvider;
 import sqlancer.doris.DorisProvider;
 import sqlancer.duckdb.DuckDBProvider;
@@ -50,11 +61,13 @@ import sqlancer.yugabyte.ysql.YSQLProvider;
 public final class Main {
 
     public static final File LOG_DIRECTORY = new File("logs");
-    public static volatile AtomicLong nrQueries = new AtomicLong();
-    public static volatile AtomicLong nrDatabases = new AtomicLong();
-    public static volatile AtomicLong nrSuccessfulActions = new AtomicLong();
-    public static volatile AtomicLong nrUnsuccessfulActions = new AtomicLong();
-    public static volatile AtomicLong threadsShutdown = new AtomicLong();
+    // updated by all threads for each statement, so they are striped to avoid contention on a single variable
+    public static final LongAdder NR_QUERIES = new LongAdder();
+    public static final LongAdder NR_DATABASES = new LongAdder();
+    public static final LongAdder NR_SUCCESSFUL_ACTIONS = new LongAdder();
+    public static final LongAdder NR_UNSUCCESSFUL_ACTIONS = new LongAdder();
+    public static final LongAdder NR_TIMED_OUT_DATABASES = new LongAdder();
+    private static final AtomicLong THREADS_SHUTDOWN = new AtomicLong();
     static boolean progressMonitorStarted;
 
     static {
@@ -82,6 +95,8 @@ public final class Main {
         private final boolean logEachSelect;
         private final boolean logQueryPlan;
 
+        private final boolean flushLogsEagerly;
+
         private final boolean useReducer;
         private final DatabaseProvider<?, ?, ?> databaseProvider;
 
@@ -104,6 +119,59 @@ public final class Main {
             }
         }
 
+        /**
+         * A writer that, with <code>--flush-logs-eagerly false</code>, keeps the logged statements in its buffer when
+         * it is flushed, so that logging a statement does not result in a system call. The buffered content is then
+         * written when the buffer is full, when the writer is closed, when a bug is logged, and when the JVM shuts
+         * down.
+         */
+        private static final class DeferredFlushFileWriter extends FileWriter {
+
+            private static final Set<DeferredFlushFileWriter> OPEN_WRITERS = ConcurrentHashMap.newKeySet();
+
+            static {
+                Runtime.getRuntime().addShutdownHook(new Thread(DeferredFlushFileWriter::flushAll));
+            }
+
+            private final boolean flushEagerly;
+
+            DeferredFlushFileWriter(File file, boolean append, boolean flushEagerly) throws IOException {
+                super(file, append);
+                this.flushEagerly = flushEagerly;
+                // a writer that flushes eagerly keeps no logged statements in its buffer
+                if (!flushEagerly) {
+                    OPEN_WRITERS.add(this);
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (flushEagerly) {
+                    super.flush();
+                }
+            }
+
+            void flushNow() throws IOException {
+                super.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                OPEN_WRITERS.remove(this);
+                super.close();
+            }
+
+            private static void flushAll() {
+                for (DeferredFlushFileWriter writer : OPEN_WRITERS) {
+                    try {
+                        writer.flushNow();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+
         public StateLogger(String databaseName, DatabaseProvider<?, ?, ?> provider, MainOptions options) {
             File dir = new File(LOG_DIRECTORY, provider.getDBMSName());
             if (dir.exists() && !dir.isDirectory()) {
@@ -119,6 +187,7 @@ public final class Main {
             if (logQueryPlan) {
                 queryPlanFile = new File(dir, databaseName + "-plan.log");
             }
+            flushLogsEagerly = options.flushLogsEagerly();
             this.useReducer = options.useReducer();
             if (useReducer) {
                 File reduceFileDir = new File(dir, "reduce");
@@ -171,7 +240,7 @@ public final class Main {
             }
             if (currentFileWriter == null) {
                 try {
-                    currentFileWriter = new FileWriter(curFile, false);
+                    currentFileWriter = new DeferredFlushFileWriter(curFile, false, flushLogsEagerly);
                 } catch (IOException e) {
                     throw new AssertionError(e);
                 }
@@ -185,7 +254,7 @@ public final class Main {
             }
             if (queryPlanFileWriter == null) {
                 try {
-                    queryPlanFileWriter = new FileWriter(queryPlanFile, true);
+                    queryPlanFileWriter = new DeferredFlushFileWriter(queryPlanFile, true, flushLogsEagerly);
                 } catch (IOException e) {
                     throw new AssertionError(e);
                 }
@@ -297,6 +366,7 @@ public final class Main {
         }
 
         public void logException(Throwable reduce, StateToReproduce state) {
+            flushDeferredWriters();
             Loggable stackTrace = getStackTrace(reduce);
             FileWriter logFileWriter2 = getLogFileWriter();
             try {
@@ -313,6 +383,45 @@ public final class Main {
             }
         }
 
+        // closes the writers of the tested database, which also removes them from the writers flushed on shutdown
+        void closeDatabaseFileWriters() throws IOException {
+            if (currentFileWriter != null) {
+                currentFileWriter.close();
+                currentFileWriter = null;
+            }
+            if (queryPlanFileWriter != null) {
+                queryPlanFileWriter.close();
+                queryPlanFileWriter = null;
+            }
+        }
+
+        // renames the log of the statements executed on the tested database, which would otherwise be overwritten by
+        // the
+        // log of the next database with the same name; returns null if there is no such log
+        File keepCurrentFile(String suffix) throws IOException {
+            if (!logEachSelect || !curFile.exists()) {
+                return null;
+            }
+            File keptFile = new File(curFile.getParentFile(),
+                    curFile.getName().replace("-cur.log", "-" + suffix + ".log"));
+            Files.move(curFile.toPath(), keptFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return keptFile;
+        }
+
+        // makes sure that the statements leading to a bug are contained in the logs when the bug is reported
+        private void flushDeferredWriters() {
+            try {
+                if (currentFileWriter instanceof DeferredFlushFileWriter) {
+                    ((DeferredFlushFileWriter) currentFileWriter).flushNow();
+                }
+                if (queryPlanFileWriter instanceof DeferredFlushFileWriter) {
+                    ((DeferredFlushFileWriter) queryPlanFileWriter).flushNow();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
         private Loggable getStackTrace(Throwable e1) {
             return databaseProvider.getLoggableFactory().convertStacktraceToLoggable(e1);
         }
@@ -353,7 +462,6 @@ public final class Main {
         public boolean execute(Query<C> q, String... fills) throws Exception {
             boolean success;
             success = q.execute(globalState, fills);
-            Main.nrSuccessfulActions.addAndGet(1);
             if (globalState.getOptions().loggerPrintFailed() || success) {
                 globalState.getState().logStatement(q);
             }
@@ -364,20 +472,19 @@ public final class Main {
             globalState.getState().logStatement(q);
             SQLancerResultSet result;
             result = q.executeAndGet(globalState, fills);
-            Main.nrSuccessfulActions.addAndGet(1);
             return result;
         }
 
         public void incrementSelectQueryCount() {
-            Main.nrQueries.addAndGet(1);
+            Main.NR_QUERIES.increment();
         }
 
         public Long getSelectQueryCount() {
-            return Main.nrQueries.get();
+            return Main.NR_QUERIES.sum();
         }
 
         public void incrementCreateDatabase() {
-            Main.nrDatabases.addAndGet(1);
+            Main.NR_DATABASES.increment();
         }
 
     }
@@ -395,6 +502,8 @@ public final class Main {
         private StateLogger logger;
         private StateToReproduce stateToRepro;
         private final Randomly r;
+        private volatile SQLancerDBConnection connection;
+        private volatile boolean aborted;
 
         public DBMSExecutor(DatabaseProvider<G, O, C> provider, MainOptions options, O dbmsSpecificOptions,
                 String databaseName, Randomly r) {
@@ -421,6 +530,8 @@ public final class Main {
             G state = getInitializedGlobalState(options.getRandomSeed());
             try (SQLancerDBConnection con = provider.createDatabase(state)) {
                 return;
+            } finally {
+                logger.closeDatabaseFileWriters();
             }
         }
 
@@ -435,6 +546,10 @@ public final class Main {
             state.setMainOptions(options);
             state.setDbmsSpecificOptions(command);
             try (C con = provider.createDatabase(state)) {
+                connection = con;
+                if (aborted) {
+                    abort();
+                }
                 QueryManager<C> manager = new QueryManager<>(state);
                 try {
                     stateToRepro.databaseVersion = con.getDatabaseVersion();
@@ -475,15 +590,20 @@ public final class Main {
                     newGlobalState.setMainOptions(options);
                     newGlobalState.setDbmsSpecificOptions(command);
                     QueryManager<C> newManager = new QueryManager<>(newGlobalState);
-                    newGlobalState.setStateLogger(new StateLogger(databaseName, provider, options));
+                    StateLogger reducerLogger = new StateLogger(databaseName, provider, options);
+                    newGlobalState.setStateLogger(reducerLogger);
                     newGlobalState.setManager(newManager);
 
-                    Reducer<G> reducer = new StatementReducer<>(provider);
-                    reducer.reduce(state, reproducer, newGlobalState);
+                    try {
+                        Reducer<G> reducer = new StatementReducer<>(provider);
+                        reducer.reduce(state, reproducer, newGlobalState);
 
-                    if (options.reduceAST()) {
-                        Reducer<G> astBasedReducer = new ASTBasedReducer<>(provider);
-                        astBasedReducer.reduce(state, reproducer, newGlobalState);
+                        if (options.reduceAST()) {
+                            Reducer<G> astBasedReducer = new ASTBasedReducer<>(provider);
+                            astBasedReducer.reduce(state, reproducer, newGlobalState);
+                        }
+                    } finally {
+                        reducerLogger.closeDatabaseFileWriters();
                     }
 
                     try {
@@ -519,6 +639,27 @@ public final class Main {
         public StateToReproduce getStateToReproduce() {
             return stateToRepro;
         }
+
+        /**
+         * Stops testing the database from another thread by aborting its connection (see
+         * {@link SQLancerDBConnection#abort()}), which causes the statement that is currently executed to fail. This is
+         * used to abandon databases whose statements hang.
+         */
+        public void abort() {
+            aborted = true;
+            SQLancerDBConnection con = connection;
+            if (con != null) {
+                try {
+                    con.abort();
+                } catch (Exception e) {
+                    // the database is abandoned anyway
+                }
+            }
+        }
+
+        public boolean isAborted() {
+            return aborted;
+        }
     }
 
     public static class DBMSExecutorFactory<G extends GlobalState<O, ?, C>, O extends DBMSSpecificOptions<?>, C extends SQLancerDBConnection> {
@@ -581,8 +722,18 @@ public final class Main {
         }
 
         Randomly.initialize(options);
+        if (!options.getCatalogCacheFile().isEmpty()) {
+            try {
+                CatalogCache.getShared().persistTo(Paths.get(options.getCatalogCacheFile()));
+            } catch (IOException e) {
+                System.err.println("SQLancer failed reading the catalog cache file " + options.getCatalogCacheFile()
+                        + ". Delete the file or specify another one using the --catalog-cache-file option.\n\n");
+                e.printStackTrace();
+                return options.getErrorExitCode();
+            }
+        }
         if (options.printProgressInformation()) {
-            startProgressMonitor();
+            startProgressMonitor(options);
             if (options.printProgressSummary()) {
                 Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
 
@@ -590,12 +741,13 @@ public final class Main {
                     public void run() {
                         System.out.println("Overall execution statistics");
                         System.out.println("============================");
-                        System.out.println(formatInteger(nrQueries.get()) + " queries");
-                        System.out.println(formatInteger(nrDatabases.get()) + " databases");
+                        System.out.println(formatInteger(NR_QUERIES.sum()) + " queries");
+                        System.out.println(formatInteger(NR_DATABASES.sum()) + " databases");
                         System.out.println(
-                                formatInteger(nrSuccessfulActions.get()) + " successfully-executed statements");
+                                formatInteger(NR_SUCCESSFUL_ACTIONS.sum()) + " successfully-executed statements");
                         System.out.println(
-                                formatInteger(nrUnsuccessfulActions.get()) + " unsuccessfully-executed statements");
+                                formatInteger(NR_UNSUCCESSFUL_ACTIONS.sum()) + " unsuccessfully-executed statements");
+                        System.out.println(formatInteger(NR_TIMED_OUT_DATABASES.sum()) + " timed-out databases");
                     }
 
                     private String formatInteger(long intValue) {
@@ -609,7 +761,15 @@ public final class Main {
             }
         }
 
-        ExecutorService execService = Executors.newFixedThreadPool(options.getNumberConcurrentThreads());
+        if (options.printActionStatistics()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                System.out.println("Action statistics");
+                System.out.println("=================");
+                System.out.print(ActionStatistics.getSummary());
+            }));
+        }
+
+        ExecutorService execService = createExecutorService(options);
         DBMSExecutorFactory<?, ?, ?> executorFactory = nameToProvider.get(jc.getParsedCommand());
 
         if (options.performConnectionTest()) {
@@ -624,6 +784,16 @@ public final class Main {
             }
         }
         final AtomicBoolean someOneFails = new AtomicBoolean(false);
+        final ScheduledExecutorService databaseTimeoutService;
+        if (options.getDatabaseTimeoutSeconds() == -1) {
+            databaseTimeoutService = null;
+        } else {
+            databaseTimeoutService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "database-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
 
         for (int i = 0; i < options.getTotalNumberTries(); i++) {
             final String databaseName = options.getDatabasePrefix() + i;
@@ -633,29 +803,36 @@ public final class Main {
             } else {
                 seed = options.getRandomSeed() + i;
             }
+            // each execution tests a single database and then re-enqueues the task, so that the threads are shared
+            // between all tries rather than each try occupying a thread until all of its databases were tested
             execService.execute(new Runnable() {
 
+                // derives the seed of each database; the Randomly is created on the thread that executes the task,
+                // since its random number generator is thread-local
+                private final SplittableRandom databaseSeeds = new SplittableRandom(seed);
+                private int nrGeneratedDatabases;
+
                 @Override
                 public void run() {
                     Thread.currentThread().setName(databaseName);
-                    runThread(databaseName);
-                }
-
-                private void runThread(final String databaseName) {
-                    Randomly r = new Randomly(seed);
+                    boolean finished = true;
                     try {
                         int maxNrDbs = options.getMaxGeneratedDatabases();
                         // run without a limit if maxNrDbs == -1
-                        for (int i = 0; i < maxNrDbs || maxNrDbs == -1; i++) {
+                        if (nrGeneratedDatabases < maxNrDbs || maxNrDbs == -1) {
+                            long databaseSeed = nrGeneratedDatabases == 0 ? seed : databaseSeeds.nextLong();
+                            nrGeneratedDatabases++;
+                            Randomly r = new Randomly(databaseSeed);
                             Boolean continueRunning = run(options, execService, executorFactory, r, databaseName);
-                            if (!continueRunning) {
+                            if (continueRunning) {
+                                execService.execute(this);
+                                finished = false;
+                            } else {
                                 someOneFails.set(true);
-                                break;
                             }
                         }
                     } finally {
-                        threadsShutdown.addAndGet(1);
-                        if (threadsShutdown.get() == options.getTotalNumberTries()) {
+                        if (finished && THREADS_SHUTDOWN.incrementAndGet() == options.getTotalNumberTries()) {
                             execService.shutdown();
                         }
                     }
@@ -664,24 +841,37 @@ public final class Main {
                 private boolean run(MainOptions options, ExecutorService execService,
                         DBMSExecutorFactory<?, ?, ?> executorFactory, Randomly r, final String databaseName) {
                     DBMSExecutor<?, ?, ?> executor = executorFactory.getDBMSExecutor(databaseName, r);
+                    ScheduledFuture<?> timeout = null;
+                    if (databaseTimeoutService != null) {
+                        timeout = databaseTimeoutService.schedule(executor::abort, options.getDatabaseTimeoutSeconds(),
+                                TimeUnit.SECONDS);
+                    }
                     try {
                         executor.run();
                         return true;
                     } catch (IgnoreMeException e) {
                         return true;
                     } catch (Throwable reduce) {
+                        if (executor.isAborted()) {
+                            return true;
+                        }
                         reduce.printStackTrace();
                         executor.getStateToReproduce().exception = reduce.getMessage();
                         executor.getLogger().logFileWriter = null;
                         executor.getLogger().logException(reduce, executor.getStateToReproduce());
                         return false;
                     } finally {
+                        if (timeout != null) {
+                            timeout.cancel(false);
+                        }
                         try {
-                            if (options.logEachSelect()) {
-                                if (executor.getLogger().currentFileWriter != null) {
-                                    executor.getLogger().currentFileWriter.close();
-                                }
-                                executor.getLogger().currentFileWriter = null;
+                            executor.getLogger().closeDatabaseFileWriters();
+                            if (executor.isAborted()) {
+                                NR_TIMED_OUT_DATABASES.increment();
+                                File keptFile = executor.getLogger().keepCurrentFile("timeout-" + nrGeneratedDatabases);
+                                System.err.println(String.format("Abandoned database %s after %d seconds%s",
+                                        databaseName, options.getDatabaseTimeoutSeconds(), keptFile == null ? ""
+                                                : ", its statements were logged to " + keptFile.getPath()));
                             }
                         } catch (IOException e) {
                             e.printStackTrace();
@@ -703,6 +893,80 @@ public final class Main {
         return someOneFails.get() ? options.getErrorExitCode() : 0;
     }
 
+    private static ExecutorService createExecutorService(MainOptions options) {
+        if (options.useVirtualThreads()) {
+            try {
+                // looked up reflectively, since virtual threads require Java 21, while SQLancer targets Java 11
+                ExecutorService virtualThreads = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                return new BoundedExecutorService(virtualThreads, options.getNumberConcurrentThreads());
+            } catch (ReflectiveOperationException e) {
+                System.err.println("Virtual threads require Java 21 or later, using "
+                        + options.getNumberConcurrentThreads() + " platform threads instead");
+            }
+        }
+        return Executors.newFixedThreadPool(options.getNumberConcurrentThreads());
+    }
+
+    /**
+     * Runs the tasks on the given executor, but at most the given number of them at a time, so that the virtual threads
+     * do not open more connections to the DBMS than <code>--num-threads</code>. The other tasks wait for a permit on
+     * their (cheap) virtual threads.
+     */
+    private static final class BoundedExecutorService extends AbstractExecutorService {
+
+        private final ExecutorService executor;
+        private final Semaphore permits;
+
+        BoundedExecutorService(ExecutorService executor, int maxConcurrentTasks) {
+            this.executor = executor;
+            this.permits = new Semaphore(maxConcurrentTasks);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            executor.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    // the executor was shut down before the task started
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            executor.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return executor.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return executor.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return executor.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return executor.awaitTermination(timeout, unit);
+        }
+    }
+
     /**
      * To register a new provider, it is necessary to implement the DatabaseProvider interface and add an additional
      * configuration file, see https://docs.oracle.com/javase/9/docs/api/java/util/ServiceLoader.html. Currently, we use
@@ -750,7 +1014,7 @@ public final class Main {
         }
     }
 
-    private static synchronized void startProgressMonitor() {
+    private static synchronized void startProgressMonitor(MainOptions options) {
         if (progressMonitorStarted) {
             /*
              * it might be already started if, for example, the main method is called multiple times in a test (see
@@ -774,25 +1038,45 @@ public final class Main {
             @Override
             public void run() {
                 long elapsedTimeMillis = System.currentTimeMillis() - timeMillis;
-                long currentNrQueries = nrQueries.get();
+                long currentNrQueries = NR_QUERIES.sum();
                 long nrCurrentQueries = currentNrQueries - lastNrQueries;
                 double throughput = nrCurrentQueries / (elapsedTimeMillis / 1000d);
-                long currentNrDbs = nrDatabases.get();
+                long currentNrDbs = NR_DATABASES.sum();
                 long nrCurrentDbs = currentNrDbs - lastNrDbs;
                 double throughputDbs = nrCurrentDbs / (elapsedTimeMillis / 1000d);
-                long successfulStatementsRatio = (long) (100.0 * nrSuccessfulActions.get()
-                        / (nrSuccessfulActions.get() + nrUnsuccessfulActions.get()));
+                long successfulStatementsRatio = (long) (100.0 * NR_SUCCESSFUL_ACTIONS.sum()
+                        / (NR_SUCCESSFUL_ACTIONS.sum() + NR_UNSUCCESSFUL_ACTIONS.sum()));
                 DateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
                 Date date = new Date();
                 System.out.println(String.format(
                         "[%s] Executed %d queries (%d queries/s; %.2f/s dbs, successful statements: %2d%%). Threads shut down: %d.",
                         dateFormat.format(date), currentNrQueries, (int) throughput, throughputDbs,
-                        successfulStatementsRatio, threadsShutdown.get()));
+                        successfulStatementsRatio, THREADS_SHUTDOWN.get()));
+                if (options.enableQPG()) {
+                    System.out.println(
+                            String.format("Query plan pool hit rate: %.1f%%.", QueryPlanPool.getHitRate() * 100));
+                }
+                for (String line : OracleStatistics.getProgress(elapsedTimeMillis / 1000d)) {
+                    System.out.println(line);
+                }
+                if (!options.getMetricsFile().isEmpty()) {
+                    try {
+                        Files.write(Paths.get(options.getMetricsFile()),
+                                OracleStatistics.getCsv().getBytes(StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
                 timeMillis = System.currentTimeMillis();
                 lastNrQueries = currentNrQueries;
                 lastNrDbs = currentNrDbs;
             }
         }, 5, 5, TimeUnit.SECONDS);
+        int actionStatisticsInterval = options.getActionStatisticsIntervalSeconds();
+        if (options.printActionStatistics() && actionStatisticsInterval > 0) {
+            scheduler.scheduleAtFixedRate(() -> System.out.print(ActionStatistics.getSummary()),
+                    actionStatisticsInterval, actionStatisticsInterval, TimeUnit.SECONDS);
+        }
     }
 
 }
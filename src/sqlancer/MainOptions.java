@@ -20,6 +20,9 @@ public class MainOptions {
             "--num-threads" }, description = "How many threads should run concurrently to test separate databases")
     private int nrConcurrentThreads = 16; // NOPMD
 
+    @Parameter(names = "--use-virtual-threads", description = "Test each of the --num-tries databases on its own virtual thread rather than on a pool of platform threads, while still testing at most --num-threads databases at a time (requires Java 21)", arity = 1)
+    private boolean useVirtualThreads; // NOPMD
+
     @Parameter(names = {
             "--random-seed" }, description = "A seed value != -1 that can be set to make the query and database generation deterministic")
     private long randomSeed = -1; // NOPMD
@@ -45,6 +48,9 @@ public class MainOptions {
     @Parameter(names = "--log-each-select", description = "Logs every statement issued", arity = 1)
     private boolean logEachSelect = true; // NOPMD
 
+    @Parameter(names = "--flush-logs-eagerly", description = "Flushes the current and query plan logs after each statement, so that they are complete even if the JVM crashes (e.g., due to a crash in an embedded DBMS). Otherwise, they are flushed only when a bug is found, when the database is completed, and when the JVM shuts down, which avoids a system call per statement", arity = 1)
+    private boolean flushLogsEagerly = true; // NOPMD
+
     @Parameter(names = "--log-execution-time", description = "Logs the execution time of each statement (requires --log-each-select to be enabled)", arity = 1)
     private boolean logExecutionTime = true; // NOPMD
 
@@ -66,6 +72,15 @@ public class MainOptions {
     @Parameter(names = "--qpg-selection-probability", description = "The probability (0-1) of the random selection of mutators. A higher value (>0.5) favors exploration over exploitation. (requires --qpg-enable)")
     private static double qpgProbability = 0.7;
 
+    @Parameter(names = "--qpg-max-recheck-queries", description = "The maximum number of queries in the query plan pool whose plans are obtained again after a mutation; queries whose plans changed frequently are preferred (-1 for no limit, requires --qpg-enable)")
+    private int qpgMaxRecheckQueries = 1000; // NOPMD
+
+    @Parameter(names = "--qpg-share-plans-across-threads", description = "Only reward query plans that no other thread has observed yet, so that the threads explore the query plans jointly (requires --qpg-enable)", arity = 1)
+    private boolean shareQPGPlansAcrossThreads; // NOPMD
+
+    @Parameter(names = "--qpg-max-pool-size", description = "The maximum number of query plans kept in the query plan pool; the least recently observed plan is evicted when it is full (requires --qpg-enable)")
+    private int qpgMaxPoolSize = 10000; // NOPMD
+
     @Parameter(names = "--username", description = "The user name used to log into the DBMS")
     private String userName = "sqlancer"; // NOPMD
 
@@ -81,6 +96,30 @@ public class MainOptions {
     @Parameter(names = "--print-progress-information", description = "Whether to print progress information such as the number of databases generated or queries issued", arity = 1)
     private boolean printProgressInformation = true; // NOPMD
 
+    @Parameter(names = "--database-timeout-seconds", description = "Abandons a database, by cancelling its current statement, if generating and testing it takes longer than this (-1 for no limit)")
+    private int databaseTimeoutSeconds = -1; // NOPMD
+
+    @Parameter(names = "--database-retirement-window", description = "The number of recent checks based on which testing a database stops early, if they indicate that it is unproductive (0 disables early retirement)")
+    private int databaseRetirementWindow; // NOPMD
+
+    @Parameter(names = "--database-retirement-ignored-ratio", description = "Stops testing a database when more than this fraction (0-1) of the checks in the retirement window were ignored (requires --database-retirement-window)")
+    private double databaseRetirementIgnoredRatio = 0.95; // NOPMD
+
+    @Parameter(names = "--database-retirement-min-checks-per-second", description = "Stops testing a database when fewer checks per second than this were completed in the retirement window (requires --database-retirement-window)")
+    private double databaseRetirementMinChecksPerSecond; // NOPMD
+
+    @Parameter(names = "--adaptive-oracle-scheduling", description = "When multiple oracles are used, check each with a probability proportional to the number of checks that it completes per second, rather than checking them in a round-robin fashion", arity = 1)
+    private boolean useAdaptiveOracleScheduling; // NOPMD
+
+    @Parameter(names = "--print-action-statistics", description = "Whether to print, when exiting SQLancer, the number of statements and latencies of each action used to generate databases (see also --action-statistics-interval-seconds)", arity = 1)
+    private boolean printActionStatistics; // NOPMD
+
+    @Parameter(names = "--action-statistics-interval-seconds", description = "The interval in which the progress monitor prints the action statistics, in addition to printing them when exiting SQLancer (0 for only printing them when exiting; requires --print-action-statistics)")
+    private int actionStatisticsIntervalSeconds; // NOPMD
+
+    @Parameter(names = "--metrics-file", description = "A CSV file to which the progress monitor writes the number of checks, failures, and latencies of each test oracle (and of each action when using --print-action-statistics) every few seconds (empty for not writing them)")
+    private String metricsFile = ""; // NOPMD
+
     @Parameter(names = "--print-progress-summary", description = "Whether to print an execution summary when exiting SQLancer", arity = 1)
     private boolean printProgressSummary; // NOPMD
 
@@ -105,6 +144,12 @@ public class MainOptions {
     @Parameter(names = "--pqs-test-aggregates", description = "Partially test aggregate functions when all tables contain only a single row.", arity = 1)
     private boolean testAggregateFunctions; // NOPMD
 
+    @Parameter(names = "--pqs-pivot-row-sample-size", description = "The number of rows sampled from each table to choose pivot rows from; a table is sampled again only after a write to it")
+    private int pivotRowSampleSize = 100; // NOPMD
+
+    @Parameter(names = "--catalog-cache-file", description = "A file in which the results of queries on the built-in catalog of the DBMS are persisted, so that they are not obtained again in later runs (empty for caching them only within this run)")
+    private String catalogCacheFile = ""; // NOPMD
+
     @Parameter(names = "--random-string-generation", description = "Select the random-string eneration approach")
     private StringGenerationStrategy randomStringGenerationStrategy = StringGenerationStrategy.SOPHISTICATED; // NOPMD
 
@@ -132,14 +177,17 @@ public class MainOptions {
     @Parameter(names = "--statement-reducer-max-steps", description = "EXPERIMENTAL Maximum steps the statement reducer will do")
     private long maxStatementReduceSteps = NO_REDUCE_LIMIT; // NOPMD
 
-    @Parameter(names = "--statement-reducer-max-time", description = "EXPERIMENTAL Maximum time duration (secs) the AST-based reducer will do")
-    private long maxASTReduceTime = NO_REDUCE_LIMIT; // NOPMD
+    @Parameter(names = "--statement-reducer-max-time", description = "EXPERIMENTAL Maximum time duration (secs) the statement reducer will do")
+    private long maxStatementReduceTime = NO_REDUCE_LIMIT; // NOPMD
+
+    @Parameter(names = "--statement-reducer-threads", description = "EXPERIMENTAL Number of threads the statement reducer uses to test candidates concurrently, each on its own database")
+    private int nrStatementReducerThreads = 1; // NOPMD
 
     @Parameter(names = "--ast-reducer-max-steps", description = "EXPERIMENTAL Maximum steps the AST-based reducer will do")
     private long maxASTReduceSteps = NO_REDUCE_LIMIT; // NOPMD
 
-    @Parameter(names = "--ast-reducer-max-time", description = "EXPERIMENTAL Maximum time duration (secs) the statement reducer will do")
-    private long maxStatementReduceTime = NO_REDUCE_LIMIT; // NOPMD
+    @Parameter(names = "--ast-reducer-max-time", description = "EXPERIMENTAL Maximum time duration (secs) the AST-based reducer will do")
+    private long maxASTReduceTime = NO_REDUCE_LIMIT; // NOPMD
 
     @Parameter(names = "--validate-result-size-only", description = "Should validate result size only and skip comparing content of the result set ", arity = 1)
     private boolean validateResultSizeOnly = false; // NOPMD
@@ -184,6 +232,10 @@ public class MainOptions {
         return logExecutionTime;
     }
 
+    public boolean flushLogsEagerly() {
+        return flushLogsEagerly;
+    }
+
     public boolean loggerPrintFailed() {
         return loggerPrintFailed;
     }
@@ -196,6 +248,22 @@ public class MainOptions {
         return enableQPG;
     }
 
+    public String getCatalogCacheFile() {
+        return catalogCacheFile;
+    }
+
+    public int getQPGMaxRecheckQueries() {
+        return qpgMaxRecheckQueries;
+    }
+
+    public boolean shareQPGPlansAcrossThreads() {
+        return shareQPGPlansAcrossThreads;
+    }
+
+    public int getQPGMaxPoolSize() {
+        return qpgMaxPoolSize;
+    }
+
     public int getQPGMaxMutationInterval() {
         return qpgMaxInterval;
     }
@@ -240,6 +308,42 @@ public class MainOptions {
         return printProgressInformation;
     }
 
+    public boolean useVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    public int getDatabaseTimeoutSeconds() {
+        return databaseTimeoutSeconds;
+    }
+
+    public int getDatabaseRetirementWindow() {
+        return databaseRetirementWindow;
+    }
+
+    public double getDatabaseRetirementIgnoredRatio() {
+        return databaseRetirementIgnoredRatio;
+    }
+
+    public double getDatabaseRetirementMinChecksPerSecond() {
+        return databaseRetirementMinChecksPerSecond;
+    }
+
+    public boolean useAdaptiveOracleScheduling() {
+        return useAdaptiveOracleScheduling;
+    }
+
+    public boolean printActionStatistics() {
+        return printActionStatistics;
+    }
+
+    public int getActionStatisticsIntervalSeconds() {
+        return actionStatisticsIntervalSeconds;
+    }
+
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
     public boolean printProgressSummary() {
         return printProgressSummary;
     }
@@ -264,6 +368,10 @@ public class MainOptions {
         return testAggregateFunctions;
     }
 
+    public int getPivotRowSampleSize() {
+        return pivotRowSampleSize;
+    }
+
     public boolean testOnlyWithMoreThanZeroRows() {
         return testOnlyWithMoreThanZeroRows;
     }
@@ -320,6 +428,10 @@ public class MainOptions {
         return maxStatementReduceTime;
     }
 
+    public int getNrStatementReducerThreads() {
+        return nrStatementReducerThreads;
+    }
+
     public long getMaxASTReduceSteps() {
         return maxASTReduceSteps;
     }
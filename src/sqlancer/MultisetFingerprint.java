@@ -0,0 +1,62 @@
+package sqlancer;
+
+/**
+ * An order-insensitive fingerprint of a multiset of strings, consisting of the number of values and the sum of their
+ * 64-bit hashes. Values can be added while a result set is being read, so that two result sets can be compared without
+ * materializing them. Different fingerprints imply different multisets; equal fingerprints imply equal multisets with
+ * high probability.
+ */
+public final class MultisetFingerprint {
+
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+
+    private long count;
+    private long hashSum;
+
+    public void add(String value) {
+        count++;
+        hashSum += hash(value);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    // FNV-1a over the characters, followed by the MurmurHash3 finalizer to spread the bits
+    private static long hash(String value) {
+        if (value == null) {
+            return NULL_HASH;
+        }
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof MultisetFingerprint)) {
+            return false;
+        }
+        MultisetFingerprint other = (MultisetFingerprint) obj;
+        return count == other.count && hashSum == other.hashSum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hashSum) * 31 + Long.hashCode(count);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d values, hash %016x", count, hashSum);
+    }
+
+}
@@ -0,0 +1,61 @@
+package sqlancer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The weighted average rewards of the mutation operators of query plan guidance (QPG), which are shared by all threads.
+ * The rewards are stored as the bits of doubles in an {@link AtomicLongArray} and updated with compare-and-set, so that
+ * concurrent updates by several threads are neither lost nor require a lock.
+ */
+final class MutatorRewards {
+
+    private final AtomicLongArray rewards;
+
+    MutatorRewards(double... initialRewards) {
+        this.rewards = new AtomicLongArray(initialRewards.length);
+        for (int i = 0; i < initialRewards.length; i++) {
+            rewards.set(i, Double.doubleToLongBits(initialRewards[i]));
+        }
+    }
+
+    int size() {
+        return rewards.length();
+    }
+
+    double get(int index) {
+        return Double.longBitsToDouble(rewards.get(index));
+    }
+
+    // adds the given value to the reward
+    void add(int index, double value) {
+        long current;
+        do {
+            current = rewards.get(index);
+        } while (!rewards.compareAndSet(index, current,
+                Double.doubleToLongBits(Double.longBitsToDouble(current) + value)));
+    }
+
+    // moves the reward towards the given value by the given weight
+    void update(int index, double value, double weight) {
+        long current;
+        do {
+            current = rewards.get(index);
+        } while (!rewards.compareAndSet(index, current, Double.doubleToLongBits(
+                Double.longBitsToDouble(current) + (value - Double.longBitsToDouble(current)) * weight)));
+    }
+
+    // the index of the largest positive reward, or 0 if there is none
+    int getMaxIndex() {
+        int maxIndex = 0;
+        double maxValue = 0.0;
+        for (int i = 0; i < rewards.length(); i++) {
+            double reward = get(i);
+            if (reward > maxValue) {
+                maxIndex = i;
+                maxValue = reward;
+            }
+        }
+        return maxIndex;
+    }
+
+}
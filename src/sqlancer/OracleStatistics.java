@@ -0,0 +1,149 @@
+package sqlancer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import sqlancer.common.oracle.TestOracle;
+
+/**
+ * Collects, for each DBMS and test oracle, how many checks were performed, how many of them were ignored or failed, and
+ * a {@link LatencyHistogram} of their durations. The progress monitor prints the checks per second and the tail
+ * latencies of each oracle, and writes the statistics to the file given by <code>--metrics-file</code>.
+ *
+ * The counters are {@link LongAdder}s, which are striped across the threads that update them, so that the threads do
+ * not contend on a shared cache line.
+ */
+public final class OracleStatistics {
+
+    private static final Map<String, OracleStatistics> STATISTICS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final LongAdder nrChecks = new LongAdder();
+    private final LongAdder nrIgnored = new LongAdder();
+    private final LongAdder nrFailed = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    // only accessed by the progress monitor
+    private long lastNrChecks;
+
+    private OracleStatistics(String name) {
+        this.name = name;
+    }
+
+    public static OracleStatistics get(String dbmsName, String oracleName) {
+        return STATISTICS.computeIfAbsent(dbmsName + "/" + oracleName, OracleStatistics::new);
+    }
+
+    /**
+     * Returns an oracle that performs the checks of the given oracle, and records them in these statistics.
+     *
+     * @param <G>
+     *            the global state type
+     * @param oracle
+     *            the oracle whose checks are recorded
+     *
+     * @return the recording oracle
+     */
+    public <G extends GlobalState<?, ?, ?>> TestOracle<G> recording(TestOracle<G> oracle) {
+        return new RecordingOracle<>(oracle, this);
+    }
+
+    private static final class RecordingOracle<G extends GlobalState<?, ?, ?>> implements TestOracle<G> {
+
+        private final TestOracle<G> oracle;
+        private final OracleStatistics statistics;
+
+        RecordingOracle(TestOracle<G> oracle, OracleStatistics statistics) {
+            this.oracle = oracle;
+            this.statistics = statistics;
+        }
+
+        @Override
+        public void check() throws Exception {
+            long startNanos = System.nanoTime();
+            boolean ignored = false;
+            boolean failed = true;
+            try {
+                oracle.check();
+                failed = false;
+            } catch (IgnoreMeException e) {
+                ignored = true;
+                failed = false;
+                throw e;
+            } finally {
+                statistics.record(System.nanoTime() - startNanos, ignored, failed);
+            }
+        }
+
+        @Override
+        public Reproducer<G> getLastReproducer() {
+            return oracle.getLastReproducer();
+        }
+
+        @Override
+        public String getLastQueryString() {
+            return oracle.getLastQueryString();
+        }
+    }
+
+    void record(long nanos, boolean ignored, boolean failed) {
+        nrChecks.increment();
+        if (ignored) {
+            nrIgnored.increment();
+        }
+        if (failed) {
+            nrFailed.increment();
+        }
+        totalNanos.add(nanos);
+        latencies.record(nanos);
+    }
+
+    /**
+     * Returns one line per oracle with the checks per second since the last call, the share of ignored checks, and the
+     * tail latency of the checks.
+     *
+     * @param elapsedSeconds
+     *            the seconds since the last call
+     *
+     * @return the progress lines
+     */
+    static List<String> getProgress(double elapsedSeconds) {
+        List<String> lines = new ArrayList<>();
+        for (OracleStatistics s : getSortedStatistics()) {
+            long currentNrChecks = s.nrChecks.sum();
+            lines.add(String.format("%s: %d checks/s (%d%% ignored, p99 %.3f ms)", s.name,
+                    (long) ((currentNrChecks - s.lastNrChecks) / elapsedSeconds),
+                    currentNrChecks == 0 ? 0 : 100 * s.nrIgnored.sum() / currentNrChecks,
+                    s.latencies.getPercentileNanos(0.99) / 1e6));
+            s.lastNrChecks = currentNrChecks;
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the statistics of all oracles and, if they were collected, of all actions as comma-separated values.
+     *
+     * @return the CSV, including a header
+     */
+    static String getCsv() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("kind,name,count,failed,ignored,total_ms,p50_ms,p99_ms").append(System.lineSeparator());
+        for (OracleStatistics s : getSortedStatistics()) {
+            sb.append(String.format("oracle,%s,%d,%d,%d,%d,%.3f,%.3f%n", s.name, s.nrChecks.sum(), s.nrFailed.sum(),
+                    s.nrIgnored.sum(), s.totalNanos.sum() / 1_000_000, s.latencies.getPercentileNanos(0.5) / 1e6,
+                    s.latencies.getPercentileNanos(0.99) / 1e6));
+        }
+        ActionStatistics.appendCsv(sb);
+        return sb.toString();
+    }
+
+    private static List<OracleStatistics> getSortedStatistics() {
+        List<OracleStatistics> statistics = new ArrayList<>(STATISTICS.values());
+        statistics.sort((a, b) -> a.name.compareTo(b.name));
+        return statistics;
+    }
+
+}
@@ -1,17 +1,18 @@
 package sqlancer;
 
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import sqlancer.StateToReproduce.OracleRunReproductionState;
-import sqlancer.common.DBMSCommon;
 import sqlancer.common.oracle.CompositeTestOracle;
 import sqlancer.common.oracle.TestOracle;
+import sqlancer.common.query.Query;
 import sqlancer.common.schema.AbstractSchema;
+import sqlancer.common.schema.AbstractTable;
 
 public abstract class ProviderAdapter<G extends GlobalState<O, ? extends AbstractSchema<G, ?>, C>, O extends DBMSSpecificOptions<? extends OracleFactory<G>>, C extends SQLancerDBConnection>
         implements DatabaseProvider<G, O, C> {
@@ -20,8 +21,9 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
     private final Class<O> optionClass;
 
     // Variables for QPG
-    Map<String, String> queryPlanPool = new HashMap<>();
-    static double[] weightedAverageReward; // static variable for sharing across all threads
+    QueryPlanPool queryPlanPool;
+    // shared across all threads, while the remaining variables are specific to the database of this provider instance
+    private static final AtomicReference<MutatorRewards> MUTATOR_REWARDS = new AtomicReference<>();
     int currentSelectRewards;
     int currentSelectCounts;
     int currentMutationOperator = -1;
@@ -54,20 +56,30 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
             globalState.getManager().incrementCreateDatabase();
 
             TestOracle<G> oracle = getTestOracle(globalState);
+            DatabaseRetirementPolicy retirementPolicy = new DatabaseRetirementPolicy(globalState.getOptions());
             for (int i = 0; i < globalState.getOptions().getNrQueries(); i++) {
+                if (retirementPolicy.isEnabled() && retirementPolicy.shouldRetire()) {
+                    break;
+                }
                 try (OracleRunReproductionState localState = globalState.getState().createLocalState()) {
                     assert localState != null;
+                    boolean wasIgnored = false;
                     try {
                         oracle.check();
                         globalState.getManager().incrementSelectQueryCount();
                     } catch (IgnoreMeException ignored) {
+                        wasIgnored = true;
                     } catch (AssertionError e) {
+                        // the reproducer is only used for reducing; otherwise, the bug is reported as usual
                         Reproducer<G> reproducer = oracle.getLastReproducer();
-                        if (reproducer != null) {
+                        if (reproducer != null && globalState.getOptions().useReducer()) {
                             return reproducer;
                         }
                         throw e;
                     }
+                    if (retirementPolicy.isEnabled()) {
+                        retirementPolicy.recordCheck(wasIgnored);
+                    }
                     localState.executedWithoutError();
                 }
             }
@@ -94,11 +106,11 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
             }
         }
         if (testOracleFactory.size() == 1) {
-            return testOracleFactory.get(0).create(globalState);
+            return createTestOracle(testOracleFactory.get(0), globalState);
         } else {
             return new CompositeTestOracle<>(testOracleFactory.stream().map(o -> {
                 try {
-                    return o.create(globalState);
+                    return createTestOracle(o, globalState);
                 } catch (Exception e1) {
                     throw new AssertionError(e1);
                 }
@@ -106,13 +118,24 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
         }
     }
 
+    // creates the oracle such that its checks are recorded in the OracleStatistics
+    protected TestOracle<G> createTestOracle(OracleFactory<G> factory, G globalState) throws Exception {
+        return OracleStatistics.get(getDBMSName(), factory.toString()).recording(factory.create(globalState));
+    }
+
     public abstract void generateDatabase(G globalState) throws Exception;
 
     // QPG: entry function
     @Override
     public void generateAndTestDatabaseWithQueryPlanGuidance(G globalState) throws Exception {
-        if (weightedAverageReward == null) {
-            weightedAverageReward = initializeWeightedAverageReward(); // Same length as the list of mutators
+        if (MUTATOR_REWARDS.get() == null) {
+            // Same length as the list of mutators
+            MUTATOR_REWARDS.compareAndSet(null, new MutatorRewards(initializeWeightedAverageReward()));
+        }
+        if (queryPlanPool == null) {
+            MainOptions options = globalState.getOptions();
+            queryPlanPool = new QueryPlanPool(options.getQPGMaxPoolSize(), options.shareQPGPlansAcrossThreads()
+                    ? options.getQPGMaxPoolSize() * options.getNumberConcurrentThreads() : 0);
         }
         try {
             generateDatabase(globalState);
@@ -120,12 +143,17 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
             globalState.getManager().incrementCreateDatabase();
 
             Long executedQueryCount = 0L;
+            DatabaseRetirementPolicy retirementPolicy = new DatabaseRetirementPolicy(globalState.getOptions());
             while (executedQueryCount < globalState.getOptions().getNrQueries()) {
                 int numOfNoNewQueryPlans = 0;
                 TestOracle<G> oracle = getTestOracle(globalState);
                 while (executedQueryCount < globalState.getOptions().getNrQueries()) {
+                    if (retirementPolicy.isEnabled() && retirementPolicy.shouldRetire()) {
+                        return;
+                    }
                     try (OracleRunReproductionState localState = globalState.getState().createLocalState()) {
                         assert localState != null;
+                        boolean wasIgnored = false;
                         try {
                             oracle.check();
                             String query = oracle.getLastQueryString();
@@ -137,7 +165,10 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
                             }
                             globalState.getManager().incrementSelectQueryCount();
                         } catch (IgnoreMeException e) {
-
+                            wasIgnored = true;
+                        }
+                        if (retirementPolicy.isEnabled()) {
+                            retirementPolicy.recordCheck(wasIgnored);
                         }
                         localState.executedWithoutError();
                     }
@@ -154,31 +185,36 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
     }
 
     // QPG: mutate tables for a new database state
-    private synchronized boolean mutateTables(G globalState) throws Exception {
+    private boolean mutateTables(G globalState) throws Exception {
+        MutatorRewards rewards = MUTATOR_REWARDS.get();
         // Update rewards based on a set of newly generated queries in last iteration
         if (currentMutationOperator != -1) {
-            weightedAverageReward[currentMutationOperator] += ((double) currentSelectRewards
-                    / (double) currentSelectCounts) * globalState.getOptions().getQPGk();
+            rewards.add(currentMutationOperator, ((double) currentSelectRewards / (double) currentSelectCounts)
+                    * globalState.getOptions().getQPGk());
         }
         currentMutationOperator = -1;
 
         // Choose mutator based on the rewards
         int selectedActionIndex = 0;
         if (Randomly.getPercentage() < globalState.getOptions().getQPGProbability()) {
-            selectedActionIndex = globalState.getRandomly().getInteger(0, weightedAverageReward.length);
+            selectedActionIndex = globalState.getRandomly().getInteger(0, rewards.size());
         } else {
-            selectedActionIndex = DBMSCommon.getMaxIndexInDoubleArray(weightedAverageReward);
+            selectedActionIndex = rewards.getMaxIndex();
         }
         int reward = 0;
 
         try {
+            int nrStatementsBefore = globalState.getState().getStatements().size();
             executeMutator(selectedActionIndex, globalState);
             checkViewsAreValid(globalState); // Remove the invalid views
-            reward = checkQueryPlan(globalState);
+            List<Query<?>> statements = globalState.getState().getStatements();
+            reward = checkQueryPlan(globalState,
+                    getTouchedTables(statements.subList(nrStatementsBefore, statements.size()), globalState));
         } catch (IgnoreMeException | AssertionError e) {
         } finally {
             // Update rewards based on existing queries associated with the query plan pool
-            updateReward(selectedActionIndex, (double) reward / (double) queryPlanPool.size(), globalState);
+            rewards.update(selectedActionIndex, (double) reward / Math.max(queryPlanPool.getLastNrConsidered(), 1),
+                    globalState.getOptions().getQPGk());
             currentMutationOperator = selectedActionIndex;
         }
 
@@ -197,42 +233,77 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
         }
 
         currentSelectCounts += 1;
-        if (queryPlanPool.containsKey(queryPlan)) {
-            return false;
-        } else {
-            queryPlanPool.put(queryPlan, selectStr);
+        if (queryPlanPool.add(queryPlan, selectStr, getReferencedTables(selectStr, globalState))) {
             currentSelectRewards += 1;
             return true;
+        } else {
+            return false;
         }
     }
 
     // Obtain the reward of the current action based on the queries associated with the query plan pool
-    private int checkQueryPlan(G globalState) throws Exception {
-        int newQueryPlanFound = 0;
-        HashMap<String, String> modifiedQueryPlan = new HashMap<>();
-        for (Iterator<Map.Entry<String, String>> it = queryPlanPool.entrySet().iterator(); it.hasNext();) {
-            Map.Entry<String, String> item = it.next();
-            String queryPlan = item.getKey();
-            String selectStr = item.getValue();
-            String newQueryPlan = getQueryPlan(selectStr, globalState);
-            if (newQueryPlan.isEmpty()) { // Invalid query
-                it.remove();
-            } else if (!queryPlan.equals(newQueryPlan)) { // A query plan has been changed
-                it.remove();
-                modifiedQueryPlan.put(newQueryPlan, selectStr);
-                if (!queryPlanPool.containsKey(newQueryPlan)) { // A new query plan is found
-                    newQueryPlanFound++;
+    private int checkQueryPlan(G globalState, Set<String> touchedTables) throws Exception {
+        return queryPlanPool.recheck(selectStr -> getQueryPlan(selectStr, globalState), touchedTables,
+                globalState.getOptions().getQPGMaxRecheckQueries());
+    }
+
+    // QPG: the names of the current tables and views that are mentioned in the given statement
+    private Set<String> getReferencedTables(String statement, G globalState) {
+        return getReferencedTables(statement, globalState.getSchema().getDatabaseTables());
+    }
+
+    static Set<String> getReferencedTables(String statement, List<? extends AbstractTable<?, ?, ?>> tables) {
+        Set<String> referencedTables = new HashSet<>();
+        for (AbstractTable<?, ?, ?> table : tables) {
+            if (containsIdentifier(statement, table.getName())) {
+                referencedTables.add(table.getName());
+            }
+        }
+        return referencedTables;
+    }
+
+    private Set<String> getTouchedTables(List<Query<?>> statements, G globalState) {
+        return getTouchedTables(statements.stream().map(Query::getQueryString).collect(Collectors.toList()),
+                globalState.getSchema().getDatabaseTables());
+    }
+
+    // QPG: the tables that could have been affected by the given statements, or null if they could affect all tables
+    // (e.g., a statement that changes an option); since the definitions of views are unknown, every view is
+    // considered to be affected when a table is
+    static Set<String> getTouchedTables(List<String> statements, List<? extends AbstractTable<?, ?, ?>> tables) {
+        Set<String> touchedTables = new HashSet<>();
+        for (String statement : statements) {
+            Set<String> referencedTables = getReferencedTables(statement, tables);
+            if (referencedTables.isEmpty()) {
+                return null;
+            }
+            touchedTables.addAll(referencedTables);
+        }
+        if (!touchedTables.isEmpty()) {
+            for (AbstractTable<?, ?, ?> table : tables) {
+                if (table.isView()) {
+                    touchedTables.add(table.getName());
                 }
             }
         }
-        queryPlanPool.putAll(modifiedQueryPlan);
-        return newQueryPlanFound;
+        return touchedTables;
+    }
+
+    private static boolean containsIdentifier(String statement, String identifier) {
+        int index = statement.indexOf(identifier);
+        while (index != -1) {
+            int end = index + identifier.length();
+            if ((index == 0 || !isIdentifierPart(statement.charAt(index - 1)))
+                    && (end == statement.length() || !isIdentifierPart(statement.charAt(end)))) {
+                return true;
+            }
+            index = statement.indexOf(identifier, index + 1);
+        }
+        return false;
     }
 
-    // QPG: update the reward of current action
-    private void updateReward(int actionIndex, double reward, G globalState) {
-        weightedAverageReward[actionIndex] += (reward - weightedAverageReward[actionIndex])
-                * globalState.getOptions().getQPGk();
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
     }
 
     // QPG: initialize the weighted average reward of all mutation operators (required implementation in specific DBMS)
@@ -0,0 +1,269 @@
+package sqlancer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The query plan pool of query plan guidance (QPG), which maps each query plan observed so far to a query that produced
+ * it. Rather than the plans themselves, which can be several kilobytes for verbose planners, the pool stores 128-bit
+ * fingerprints of them. The pool is bounded; when it is full, the plan that was least recently observed is evicted, so
+ * that its memory consumption stays constant in long runs.
+ *
+ * For each query, the pool also stores the tables that it references, so that after a mutation only the queries whose
+ * plans could have been affected need to be rechecked.
+ *
+ * Optionally, the fingerprints of new plans are also recorded in a set that is shared by the pools of all threads. A
+ * plan is then only considered new if no other thread has observed it yet, so that the threads explore the query plans
+ * jointly rather than each rediscovering the same plans. The shared set is bounded as well; when it is full, the plan
+ * that was least recently observed by any thread is evicted and would be considered new again.
+ */
+public final class QueryPlanPool {
+
+    private static final LongAdder NR_LOOKUPS = new LongAdder();
+    private static final LongAdder NR_HITS = new LongAdder();
+    // in access order, so that the least recently observed plan is the first entry
+    private static final Map<PlanFingerprint, Boolean> SHARED_FINGERPRINTS = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<PlanFingerprint, PooledQuery> queries;
+    private final int maxSharedSize;
+    private int lastNrConsidered;
+
+    @FunctionalInterface
+    public interface QueryPlanFunction {
+        String getQueryPlan(String query) throws Exception;
+    }
+
+    public QueryPlanPool(int maxSize) {
+        this(maxSize, 0);
+    }
+
+    /**
+     * Creates a query plan pool whose new plans are also recorded in the set shared by all pools.
+     *
+     * @param maxSize
+     *            the maximum number of query plans in this pool
+     * @param maxSharedSize
+     *            the maximum number of plans in the shared set, or 0 to not share plans with other pools
+     */
+    public QueryPlanPool(int maxSize, int maxSharedSize) {
+        this.queries = new LeastRecentlyUsedMap(maxSize);
+        this.maxSharedSize = maxSharedSize;
+    }
+
+    /**
+     * Adds a query plan to the pool.
+     *
+     * @param queryPlan
+     *            the query plan
+     * @param query
+     *            the query that produced the plan
+     * @param tables
+     *            the names of the tables and views that the query references
+     *
+     * @return true if the query plan is new to this pool and, if plans are shared, to all other pools
+     */
+    public boolean add(String queryPlan, String query, Set<String> tables) {
+        NR_LOOKUPS.increment();
+        PlanFingerprint fingerprint = new PlanFingerprint(queryPlan);
+        if (queries.get(fingerprint) != null) {
+            NR_HITS.increment();
+            return false;
+        }
+        // the query is kept even if another thread observed the plan, since rechecks are specific to this database
+        queries.put(fingerprint, new PooledQuery(query, tables));
+        return addShared(fingerprint);
+    }
+
+    // returns false if sharing is enabled and another pool has already observed the plan
+    private boolean addShared(PlanFingerprint fingerprint) {
+        if (maxSharedSize == 0) {
+            return true;
+        }
+        synchronized (SHARED_FINGERPRINTS) {
+            boolean isNew = SHARED_FINGERPRINTS.put(fingerprint, Boolean.TRUE) == null;
+            Iterator<PlanFingerprint> leastRecentlyObserved = SHARED_FINGERPRINTS.keySet().iterator();
+            while (SHARED_FINGERPRINTS.size() > maxSharedSize) {
+                leastRecentlyObserved.next();
+                leastRecentlyObserved.remove();
+            }
+            return isNew;
+        }
+    }
+
+    /**
+     * Obtains the query plans of queries in the pool again, for example, after the database was mutated. Queries that
+     * have become invalid are removed, and queries whose plans changed are associated with their new plans.
+     *
+     * Only queries that reference one of the touched tables are rechecked. If there are more of them than the given
+     * maximum, a sample is rechecked, in which queries whose plans changed more often in previous rechecks are more
+     * likely to be included.
+     *
+     * @param function
+     *            computes the query plan of a query, or returns an empty string if the query is invalid
+     * @param touchedTables
+     *            the names of the tables and views that could have been affected, including the views that depend on an
+     *            affected table, or null if all tables could have been affected
+     * @param maxQueries
+     *            the maximum number of queries to recheck, or -1 to recheck all affected queries
+     *
+     * @return the number of query plans that were not in the pool (and, if plans are shared, in any other pool) before
+     *
+     * @throws Exception
+     *             if computing a query plan fails
+     */
+    public int recheck(QueryPlanFunction function, Set<String> touchedTables, int maxQueries) throws Exception {
+        List<Map.Entry<PlanFingerprint, PooledQuery>> affected = new ArrayList<>();
+        for (Map.Entry<PlanFingerprint, PooledQuery> entry : queries.entrySet()) {
+            if (touchedTables == null || !Collections.disjoint(entry.getValue().tables, touchedTables)) {
+                affected.add(entry);
+            }
+        }
+        // the plans of queries that do not reference a touched table are known not to have changed
+        lastNrConsidered = queries.size();
+        if (maxQueries != -1 && affected.size() > maxQueries) {
+            lastNrConsidered -= affected.size() - maxQueries;
+            affected = sample(affected, maxQueries);
+        }
+
+        int newQueryPlanFound = 0;
+        Map<PlanFingerprint, PooledQuery> modifiedQueryPlans = new HashMap<>();
+        for (Map.Entry<PlanFingerprint, PooledQuery> item : affected) {
+            PooledQuery query = item.getValue();
+            String newQueryPlan = function.getQueryPlan(query.query);
+            if (newQueryPlan.isEmpty()) { // Invalid query
+                queries.remove(item.getKey());
+                continue;
+            }
+            PlanFingerprint newFingerprint = new PlanFingerprint(newQueryPlan);
+            if (!item.getKey().equals(newFingerprint)) { // A query plan has been changed
+                queries.remove(item.getKey());
+                query.nrPlanChanges++;
+                modifiedQueryPlans.put(newFingerprint, query);
+                if (!queries.containsKey(newFingerprint) && addShared(newFingerprint)) { // A new query plan is found
+                    newQueryPlanFound++;
+                }
+            }
+        }
+        queries.putAll(modifiedQueryPlans);
+        return newQueryPlanFound;
+    }
+
+    // weighted sampling without replacement (Efraimidis and Spirakis), which keeps the entries with the largest keys
+    private static List<Map.Entry<PlanFingerprint, PooledQuery>> sample(
+            List<Map.Entry<PlanFingerprint, PooledQuery>> entries, int size) {
+        Map<Map.Entry<PlanFingerprint, PooledQuery>, Double> keys = new HashMap<>();
+        for (Map.Entry<PlanFingerprint, PooledQuery> entry : entries) {
+            double weight = 1 + entry.getValue().nrPlanChanges;
+            keys.put(entry, Math.pow(Randomly.getPercentage(), 1 / weight));
+        }
+        List<Map.Entry<PlanFingerprint, PooledQuery>> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(keys::get, Comparator.reverseOrder()));
+        return sorted.subList(0, size);
+    }
+
+    /**
+     * Returns the number of queries whose plans are known after the last recheck, either because they were rechecked or
+     * because they do not reference any touched table.
+     *
+     * @return the number of queries considered by the last recheck
+     */
+    public int getLastNrConsidered() {
+        return lastNrConsidered;
+    }
+
+    public int size() {
+        return queries.size();
+    }
+
+    /**
+     * Returns the fraction of the query plans added to any pool so far that were already contained in it.
+     *
+     * @return the hit rate between 0 and 1, or 0 if no plans were added
+     */
+    public static double getHitRate() {
+        long lookups = NR_LOOKUPS.sum();
+        return lookups == 0 ? 0 : (double) NR_HITS.sum() / lookups;
+    }
+
+    private static final class PooledQuery {
+
+        private final String query;
+        private final Set<String> tables;
+        private int nrPlanChanges;
+
+        PooledQuery(String query, Set<String> tables) {
+            this.query = query;
+            this.tables = tables;
+        }
+    }
+
+    private static final class LeastRecentlyUsedMap extends LinkedHashMap<PlanFingerprint, PooledQuery> {
+
+        private static final long serialVersionUID = 1L;
+        private final int maxSize;
+
+        LeastRecentlyUsedMap(int maxSize) {
+            // access order, so that the least recently observed plan is the eldest entry
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PlanFingerprint, PooledQuery> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static final class PlanFingerprint {
+
+        private final long high;
+        private final long low;
+
+        PlanFingerprint(String queryPlan) {
+            // two independent 64-bit hashes (FNV-1a and a polynomial hash), each finalized with the MurmurHash3 mixer
+            long fnv = 0xcbf29ce484222325L;
+            long polynomial = queryPlan.length();
+            for (int i = 0; i < queryPlan.length(); i++) {
+                char c = queryPlan.charAt(i);
+                fnv ^= c;
+                fnv *= 0x100000001b3L;
+                polynomial = polynomial * 0x9E3779B97F4A7C15L + c;
+            }
+            this.high = mix(polynomial);
+            this.low = mix(fnv);
+        }
+
+        private static long mix(long value) {
+            long h = value;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PlanFingerprint)) {
+                return false;
+            }
+            PlanFingerprint other = (PlanFingerprint) obj;
+            return high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(low);
+        }
+    }
+
+}
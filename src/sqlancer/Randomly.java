@@ -5,8 +5,10 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.function.Supplier;
 
 public final class Randomly {
@@ -16,64 +18,163 @@ public final class Randomly {
     private static boolean useCaching = true;
     private static int cacheSize = 100;
 
-    private final List<Long> cachedLongs = new ArrayList<>();
-    private final List<Integer> cachedIntegers = new ArrayList<>();
-    private final List<String> cachedStrings = new ArrayList<>();
-    private final List<Double> cachedDoubles = new ArrayList<>();
+    // the caches are allocated when the first value is added, since many instances never add values to some of them
+    private LongCache cachedLongs;
+    private LongCache cachedIntegers;
+    private StringCache cachedStrings;
+    // doubles are stored by their bit pattern, which matches the equality of Double.equals()
+    private LongCache cachedDoubles;
     private final List<byte[]> cachedBytes = new ArrayList<>();
     private Supplier<String> provider;
 
-    private static final ThreadLocal<Random> THREAD_RANDOM = new ThreadLocal<>();
+    // a static method might be called before Randomly was instantiated on the current thread
+    private static final ThreadLocal<SplittableRandom> THREAD_RANDOM = ThreadLocal.withInitial(SplittableRandom::new);
     private long seed;
 
+    /**
+     * An insert-only set of primitive longs with a fixed capacity. The values are stored densely so that a random one
+     * can be picked in O(1), and an open-addressing table over their indices makes deduplication O(1).
+     */
+    static final class LongCache {
+
+        private final long[] values;
+        // index + 1 into values, or 0 for an empty slot
+        private final int[] slots;
+        private final int mask;
+        private int size;
+
+        LongCache(int capacity) {
+            values = new long[capacity];
+            // the smallest power of two that keeps the load factor at or below 0.5
+            slots = new int[Integer.highestOneBit(Math.max(1, capacity * 2 - 1)) << 1];
+            mask = slots.length - 1;
+        }
+
+        void add(long val) {
+            if (size == values.length) {
+                return;
+            }
+            int slot = hash(val) & mask;
+            while (slots[slot] != 0) {
+                if (values[slots[slot] - 1] == val) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            values[size++] = val;
+            slots[slot] = size;
+        }
+
+        long getRandom() {
+            return values[getNextInt(0, size)];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        private static int hash(long val) {
+            int h = Long.hashCode(val) * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+    }
+
+    /**
+     * A fixed-capacity set of strings. Once the cache is full, each new string evicts the oldest one, so that the cache
+     * keeps following the constants that are currently being generated.
+     */
+    static final class StringCache {
+
+        private final String[] ring;
+        private final Set<String> contained = new HashSet<>();
+        private int size;
+        private int oldest;
+
+        StringCache(int capacity) {
+            ring = new String[capacity];
+        }
+
+        void add(String val) {
+            if (ring.length == 0 || contained.contains(val)) {
+                return;
+            }
+            if (size < ring.length) {
+                ring[size++] = val;
+            } else {
+                contained.remove(ring[oldest]);
+                ring[oldest] = val;
+                oldest = (oldest + 1) % ring.length;
+            }
+            contained.add(val);
+        }
+
+        String getRandom() {
+            return ring[getNextInt(0, size)];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+    }
+
     private void addToCache(long val) {
-        if (useCaching && cachedLongs.size() < cacheSize && !cachedLongs.contains(val)) {
+        if (useCaching) {
+            if (cachedLongs == null) {
+                cachedLongs = new LongCache(cacheSize);
+            }
             cachedLongs.add(val);
         }
     }
 
     private void addToCache(int val) {
-        if (useCaching && cachedIntegers.size() < cacheSize && !cachedIntegers.contains(val)) {
+        if (useCaching) {
+            if (cachedIntegers == null) {
+                cachedIntegers = new LongCache(cacheSize);
+            }
             cachedIntegers.add(val);
         }
     }
 
     private void addToCache(double val) {
-        if (useCaching && cachedDoubles.size() < cacheSize && !cachedDoubles.contains(val)) {
-            cachedDoubles.add(val);
+        if (useCaching) {
+            if (cachedDoubles == null) {
+                cachedDoubles = new LongCache(cacheSize);
+            }
+            cachedDoubles.add(Double.doubleToLongBits(val));
         }
     }
 
     private void addToCache(String val) {
-        if (useCaching && cachedStrings.size() < cacheSize && !cachedStrings.contains(val)) {
+        if (useCaching) {
+            if (cachedStrings == null) {
+                cachedStrings = new StringCache(cacheSize);
+            }
             cachedStrings.add(val);
         }
     }
 
-    private Long getFromLongCache() {
-        if (!useCaching || cachedLongs.isEmpty()) {
-            return null;
-        } else {
-            return Randomly.fromList(cachedLongs);
-        }
+    private static boolean isEmpty(LongCache cache) {
+        return cache == null || cache.isEmpty();
     }
 
-    private Integer getFromIntegerCache() {
-        if (!useCaching || cachedIntegers.isEmpty()) {
-            return null;
-        } else {
-            return Randomly.fromList(cachedIntegers);
-        }
+    private boolean hasCachedLongs() {
+        return useCaching && !isEmpty(cachedLongs);
+    }
+
+    private boolean hasCachedIntegers() {
+        return useCaching && !isEmpty(cachedIntegers);
     }
 
     private Double getFromDoubleCache() {
         if (!useCaching) {
             return null;
         }
-        if (Randomly.getBoolean() && !cachedLongs.isEmpty()) {
-            return (double) Randomly.fromList(cachedLongs);
-        } else if (!cachedDoubles.isEmpty()) {
-            return Randomly.fromList(cachedDoubles);
+        if (Randomly.getBoolean() && !isEmpty(cachedLongs)) {
+            return (double) cachedLongs.getRandom();
+        } else if (!isEmpty(cachedDoubles)) {
+            return Double.longBitsToDouble(cachedDoubles.getRandom());
         } else {
             return null;
         }
@@ -83,15 +184,15 @@ public final class Randomly {
         if (!useCaching) {
             return null;
         }
-        if (Randomly.getBoolean() && !cachedLongs.isEmpty()) {
-            return String.valueOf(Randomly.fromList(cachedLongs));
-        } else if (Randomly.getBoolean() && !cachedDoubles.isEmpty()) {
-            return String.valueOf(Randomly.fromList(cachedDoubles));
+        if (Randomly.getBoolean() && !isEmpty(cachedLongs)) {
+            return String.valueOf(cachedLongs.getRandom());
+        } else if (Randomly.getBoolean() && !isEmpty(cachedDoubles)) {
+            return String.valueOf(Double.longBitsToDouble(cachedDoubles.getRandom()));
         } else if (Randomly.getBoolean() && !cachedBytes.isEmpty()
                 && stringGenerationStrategy == StringGenerationStrategy.SOPHISTICATED) {
             return new String(Randomly.fromList(cachedBytes));
-        } else if (!cachedStrings.isEmpty()) {
-            String randomString = Randomly.fromList(cachedStrings);
+        } else if (cachedStrings != null && !cachedStrings.isEmpty()) {
+            String randomString = cachedStrings.getRandom();
             if (Randomly.getBoolean()) {
                 return randomString;
             } else {
@@ -109,7 +210,7 @@ public final class Randomly {
     // CACHING END
 
     public static <T> T fromList(List<T> list) {
-        return list.get((int) getNextLong(0, list.size()));
+        return list.get(getNextInt(0, list.size()));
     }
 
     @SafeVarargs
@@ -177,36 +278,43 @@ public final class Randomly {
 
     public static int smallNumber() {
         // no need to cache for small numbers
-        return (int) (Math.abs(getThreadRandom().get().nextGaussian())) * 2;
+        return (int) (Math.abs(nextGaussian())) * 2;
+    }
+
+    // SplittableRandom does not provide nextGaussian() before Java 17, so we use the polar method
+    private static double nextGaussian() {
+        SplittableRandom random = getThreadRandom();
+        double v1;
+        double v2;
+        double s;
+        do {
+            v1 = 2 * random.nextDouble() - 1;
+            v2 = 2 * random.nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        return v1 * StrictMath.sqrt(-2 * StrictMath.log(s) / s);
     }
 
     public static boolean getBoolean() {
-        return getThreadRandom().get().nextBoolean();
+        return getThreadRandom().nextBoolean();
     }
 
     public static double getPercentage() {
-        return getThreadRandom().get().nextDouble();
+        return getThreadRandom().nextDouble();
     }
 
-    private static ThreadLocal<Random> getThreadRandom() {
-        if (THREAD_RANDOM.get() == null) {
-            // a static method has been called, before Randomly was instantiated
-            THREAD_RANDOM.set(new Random());
-        }
-        return THREAD_RANDOM;
+    private static SplittableRandom getThreadRandom() {
+        return THREAD_RANDOM.get();
     }
 
     public long getInteger() {
         if (smallBiasProbability()) {
             return Randomly.fromOptions(-1L, Long.MAX_VALUE, Long.MIN_VALUE, 1L, 0L);
         } else {
-            if (cacheProbability()) {
-                Long l = getFromLongCache();
-                if (l != null) {
-                    return l;
-                }
+            if (cacheProbability() && hasCachedLongs()) {
+                return cachedLongs.getRandom();
             }
-            long nextLong = getThreadRandom().get().nextInt();
+            long nextLong = getThreadRandom().nextInt();
             addToCache(nextLong);
             return nextLong;
         }
@@ -348,7 +456,7 @@ public final class Randomly {
     public byte[] getBytes() {
         int size = Randomly.smallNumber();
         byte[] arr = new byte[size];
-        getThreadRandom().get().nextBytes(arr);
+        getThreadRandom().nextBytes(arr);
         return arr;
     }
 
@@ -357,9 +465,9 @@ public final class Randomly {
         if (smallBiasProbability()) {
             return Randomly.fromOptions(-1L, Long.MAX_VALUE, Long.MIN_VALUE, 1L);
         }
-        if (cacheProbability()) {
-            Long l = getFromLongCache();
-            if (l != null && l != 0) {
+        if (cacheProbability() && hasCachedLongs()) {
+            long l = cachedLongs.getRandom();
+            if (l != 0) {
                 return l;
             }
         }
@@ -371,9 +479,9 @@ public final class Randomly {
     }
 
     public long getPositiveInteger() {
-        if (cacheProbability()) {
-            Long value = getFromLongCache();
-            if (value != null && value >= 0) {
+        if (cacheProbability() && hasCachedLongs()) {
+            long value = cachedLongs.getRandom();
+            if (value >= 0) {
                 return value;
             }
         }
@@ -389,9 +497,9 @@ public final class Randomly {
     }
 
     public int getPositiveIntegerInt() {
-        if (cacheProbability()) {
-            Integer value = getFromIntegerCache();
-            if (value != null && value >= 0) {
+        if (cacheProbability() && hasCachedIntegers()) {
+            int value = (int) cachedIntegers.getRandom();
+            if (value >= 0) {
                 return value;
             }
         }
@@ -425,17 +533,17 @@ public final class Randomly {
                 return d;
             }
         }
-        double value = getThreadRandom().get().nextDouble();
+        double value = getThreadRandom().nextDouble();
         addToCache(value);
         return value;
     }
 
     private static boolean smallBiasProbability() {
-        return getThreadRandom().get().nextInt(100) == 1;
+        return getThreadRandom().nextInt(100) == 1;
     }
 
     public static boolean getBooleanWithRatherLowProbability() {
-        return getThreadRandom().get().nextInt(10) == 1;
+        return getThreadRandom().nextInt(10) == 1;
     }
 
     public static boolean getBooleanWithSmallProbability() {
@@ -469,7 +577,7 @@ public final class Randomly {
     }
 
     public BigDecimal getRandomBigDecimal() {
-        return BigDecimal.valueOf(getThreadRandom().get().nextDouble());
+        return BigDecimal.valueOf(getThreadRandom().nextDouble());
     }
 
     public long getPositiveIntegerNotNull() {
@@ -482,7 +590,7 @@ public final class Randomly {
     }
 
     public static long getNonCachedInteger() {
-        return getThreadRandom().get().nextLong();
+        return getThreadRandom().nextLong();
     }
 
     public static long getPositiveOrZeroNonCachedInteger() {
@@ -498,16 +606,16 @@ public final class Randomly {
     }
 
     public Randomly() {
-        THREAD_RANDOM.set(new Random());
+        THREAD_RANDOM.set(new SplittableRandom());
     }
 
     public Randomly(long seed) {
         this.seed = seed;
-        THREAD_RANDOM.set(new Random(seed));
+        THREAD_RANDOM.set(new SplittableRandom(seed));
     }
 
     public static double getUncachedDouble() {
-        return getThreadRandom().get().nextDouble();
+        return getThreadRandom().nextDouble();
     }
 
     public String getChar() {
@@ -528,9 +636,8 @@ public final class Randomly {
         }
     }
 
-    // see https://stackoverflow.com/a/2546158
-    // uniformity does not seem to be important for us
-    // SQLancer previously used ThreadLocalRandom.current().nextLong(lower, upper)
+    // SQLancer previously used Random.longs(lower, upper).findFirst(), which allocates a stream pipeline per call;
+    // SplittableRandom draws bounded values by rejection sampling without allocating
     private static long getNextLong(long lower, long upper) {
         if (lower > upper) {
             throw new IllegalArgumentException(lower + " " + upper);
@@ -538,11 +645,17 @@ public final class Randomly {
         if (lower == upper) {
             return lower;
         }
-        return getThreadRandom().get().longs(lower, upper).findFirst().getAsLong();
+        return getThreadRandom().nextLong(lower, upper);
     }
 
     private static int getNextInt(int lower, int upper) {
-        return (int) getNextLong(lower, upper);
+        if (lower > upper) {
+            throw new IllegalArgumentException(lower + " " + upper);
+        }
+        if (lower == upper) {
+            return lower;
+        }
+        return getThreadRandom().nextInt(lower, upper);
     }
 
     public long getSeed() {
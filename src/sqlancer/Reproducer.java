@@ -1,5 +1,16 @@
 package sqlancer;
 
 public interface Reproducer<G extends GlobalState<?, ?, ?>> {
+
+    /**
+     * Checks whether the bug is still triggered on the database of the given global state. With
+     * <code>--statement-reducer-threads</code>, the statement reducer calls this method concurrently, each time with
+     * the global state of another database, so implementations must not modify state that they share across calls.
+     *
+     * @param globalState
+     *            the global state of the database on which to check the bug
+     *
+     * @return whether the bug is still triggered
+     */
     boolean bugStillTriggers(G globalState);
 }
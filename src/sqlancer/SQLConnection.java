@@ -8,6 +8,10 @@ import java.sql.Statement;
 public class SQLConnection implements SQLancerDBConnection {
 
     private final Connection connection;
+    private Boolean supportsMultiStatementQueries;
+    // statements are executed one at a time, so the statement that was created last is the one being executed
+    private volatile Statement currentStatement;
+    private volatile boolean aborted;
 
     public SQLConnection(Connection connection) {
         this.connection = connection;
@@ -24,11 +28,57 @@ public class SQLConnection implements SQLancerDBConnection {
         connection.close();
     }
 
+    /**
+     * Whether several queries separated by semicolons can be sent in a single round-trip, with their result sets being
+     * retrieved using {@link Statement#getMoreResults()}. This is the case for the PostgreSQL driver (which is also
+     * used for CockroachDB, Materialize, and YugabyteDB) and for MySQL-compatible drivers when multi-queries are
+     * enabled in the connection URL.
+     *
+     * @return true if multiple queries can be executed using a single statement
+     *
+     * @throws SQLException
+     *             if the connection's metadata cannot be retrieved
+     */
+    public boolean supportsMultiStatementQueries() throws SQLException {
+        if (supportsMultiStatementQueries == null) {
+            DatabaseMetaData meta = connection.getMetaData();
+            boolean isPostgresDriver = meta.getDriverName().contains("PostgreSQL");
+            boolean allowsMultiQueries = meta.getURL() != null && meta.getURL().contains("allowMultiQueries=true");
+            supportsMultiStatementQueries = meta.supportsMultipleResultSets()
+                    && (isPostgresDriver || allowsMultiQueries);
+        }
+        return supportsMultiStatementQueries;
+    }
+
     public Statement prepareStatement(String arg) throws SQLException {
-        return connection.prepareStatement(arg);
+        return register(connection.prepareStatement(arg));
     }
 
     public Statement createStatement() throws SQLException {
-        return connection.createStatement();
+        return register(connection.createStatement());
+    }
+
+    private Statement register(Statement statement) throws SQLException {
+        currentStatement = statement;
+        // checked after publishing the statement, so that either abort() cancels it or it is not executed
+        if (aborted) {
+            statement.close();
+            throw new SQLException("The database was abandoned");
+        }
+        return statement;
+    }
+
+    /**
+     * Cancels the statement that is currently executed, and makes all further statements fail. Unlike closing the
+     * connection, which is unsafe while another thread uses it (for example, for embedded DBMSs, whose native resources
+     * are freed by closing it), cancelling a statement from another thread is supported by JDBC.
+     */
+    @Override
+    public void abort() throws SQLException {
+        aborted = true;
+        Statement statement = currentStatement;
+        if (statement != null) {
+            statement.cancel();
+        }
     }
 }
@@ -24,7 +24,9 @@ public abstract class SQLGlobalState<O extends DBMSSpecificOptions<?>, S extends
             getLogger().writeCurrent(" -- " + timer.end().asString());
         }
         if (q.couldAffectSchema()) {
-            updateSchema();
+            invalidateSchema();
+        } else if (success) {
+            registerWrite(q);
         }
     }
 }
@@ -3,4 +3,16 @@ package sqlancer;
 public interface SQLancerDBConnection extends AutoCloseable {
 
     String getDatabaseVersion() throws Exception;
+
+    /**
+     * Stops testing the database from another thread than the one that uses the connection, so that the statement that
+     * is currently executed fails, as do all further statements. The connection must still be closed by the thread that
+     * uses it.
+     *
+     * @throws Exception
+     *             if the connection cannot be aborted
+     */
+    default void abort() throws Exception {
+        close();
+    }
 }
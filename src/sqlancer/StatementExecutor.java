@@ -32,6 +32,7 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
     @SuppressWarnings("unchecked")
     public void executeStatements() throws Exception {
         Randomly r = globalState.getRandomly();
+        boolean collectStatistics = globalState.getOptions().printActionStatistics();
         int[] nrRemaining = new int[actions.length];
         List<A> availableActions = new ArrayList<>();
         int total = 0;
@@ -62,19 +63,29 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
             nrRemaining[i]--;
             @SuppressWarnings("rawtypes")
             Query query = null;
+            ActionStatistics statistics = collectStatistics ? ActionStatistics.get(nextAction) : null;
+            long startNanos = 0;
             try {
                 boolean success;
                 int nrTries = 0;
                 do {
+                    if (statistics != null) {
+                        startNanos = System.nanoTime();
+                    }
                     query = nextAction.getQuery(globalState);
                     success = globalState.executeStatement(query);
+                    if (statistics != null) {
+                        statistics.record(System.nanoTime() - startNanos, success, nrTries != 0);
+                    }
                 } while (nextAction.canBeRetried() && !success
                         && nrTries++ < globalState.getOptions().getNrStatementRetryCount());
             } catch (IgnoreMeException ignored) {
-
+                if (statistics != null) {
+                    statistics.recordIgnored(System.nanoTime() - startNanos);
+                }
             }
             if (query != null && query.couldAffectSchema()) {
-                globalState.updateSchema();
+                globalState.invalidateSchema();
                 queryConsumer.notify(query);
             }
             total--;
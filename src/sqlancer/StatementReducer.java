@@ -1,17 +1,33 @@
 package sqlancer;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import sqlancer.common.query.Query;
 
 public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpecificOptions<?>, C extends SQLancerDBConnection>
         implements Reducer<G> {
+    private static final String CHECKPOINT_SNAPSHOT_NAME = "reduce-checkpoint";
+
     private final DatabaseProvider<G, O, C> provider;
     private boolean observedChange;
     private int partitionNum;
+    private boolean useSnapshots;
+    private boolean snapshotTaken;
+
+    // used to test several candidates concurrently; null if the reducer is single-threaded
+    private ExecutorService executor;
+    private BlockingQueue<G> workerStates;
 
     private long currentReduceSteps;
     private long currentReduceTime;
@@ -57,20 +73,38 @@ public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpec
         currentReduceSteps = 0;
         currentReduceTime = 0;
         partitionNum = 2;
+        useSnapshots = provider.supportsSnapshots();
+        snapshotTaken = false;
 
-        while (knownToReproduceBugStatements.size() >= 2 && hasNotReachedLimit(currentReduceSteps, maxReduceSteps)
-                && hasNotReachedLimit(currentReduceTime, maxReduceTime)) {
-            observedChange = false;
+        int nrThreads = state.getOptions().getNrStatementReducerThreads();
+        if (nrThreads > 1) {
+            startWorkers(newGlobalState, nrThreads);
+        }
+        try {
+            while (knownToReproduceBugStatements.size() >= 2 && hasNotReachedLimit(currentReduceSteps, maxReduceSteps)
+                    && hasNotReachedLimit(currentReduceTime, maxReduceTime)) {
+                observedChange = false;
 
-            knownToReproduceBugStatements = tryReduction(state, reproducer, newGlobalState,
-                    knownToReproduceBugStatements);
+                if (executor == null) {
+                    knownToReproduceBugStatements = tryReduction(state, reproducer, newGlobalState,
+                            knownToReproduceBugStatements);
+                } else {
+                    knownToReproduceBugStatements = tryReductionInParallel(reproducer, newGlobalState,
+                            knownToReproduceBugStatements);
+                }
 
-            if (!observedChange) {
-                if (partitionNum == knownToReproduceBugStatements.size()) {
-                    break;
+                if (!observedChange) {
+                    if (partitionNum == knownToReproduceBugStatements.size()) {
+                        break;
+                    }
+                    // increase the search granularity
+                    partitionNum = Math.min(partitionNum * 2, knownToReproduceBugStatements.size());
                 }
-                // increase the search granularity
-                partitionNum = Math.min(partitionNum * 2, knownToReproduceBugStatements.size());
+            }
+        } finally {
+            stopWorkers();
+            if (snapshotTaken) {
+                provider.deleteSnapshot(newGlobalState, CHECKPOINT_SNAPSHOT_NAME);
             }
         }
 
@@ -88,23 +122,22 @@ public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpec
 
         int start = 0;
         int subLength = statements.size() / partitionNum;
+        // the number of leading statements whose effects are contained in the checkpoint snapshot
+        int checkpointLength = 0;
+        boolean extendCheckpoint = useSnapshots;
         while (start < statements.size()) {
             // newStatements = candidate[:start] + candidate[start+subLength:]
             // in other word, remove [start, start+subLength) from candidates
-            try (C con2 = provider.createDatabase(newGlobalState)) {
+            try (C con2 = createDatabase(newGlobalState, checkpointLength)) {
                 newGlobalState.setConnection(con2);
                 List<Query<C>> candidateStatements = new ArrayList<>(statements);
                 int endPoint = Math.min(start + subLength, candidateStatements.size());
                 candidateStatements.subList(start, endPoint).clear();
                 newGlobalState.getState().setStatements(new ArrayList<>(candidateStatements));
 
-                for (Query<C> s : candidateStatements) {
-                    try {
-                        s.execute(newGlobalState);
-                    } catch (Throwable ignoredException) {
-                        // ignore
-                    }
-                }
+                // the candidate shares the checkpoint's statements, since they precede the removed ones
+                executeStatements(newGlobalState,
+                        candidateStatements.subList(checkpointLength, candidateStatements.size()));
                 try {
                     if (reproducer.bugStillTriggers(newGlobalState)) {
                         observedChange = true;
@@ -131,10 +164,163 @@ public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpec
                 return statements;
             }
             start = start + subLength;
+            if (extendCheckpoint && start < statements.size()) {
+                checkpointLength = advanceCheckpoint(newGlobalState, statements, checkpointLength, start);
+                // a longer prefix also contains the statements whose effects a snapshot could not capture
+                extendCheckpoint = checkpointLength != 0;
+            }
         }
         return statements;
     }
 
+    // tests all candidates of the current partitioning concurrently, and picks the first candidate (in the order in
+    // which tryReduction tests them) that still triggers the bug
+    private List<Query<C>> tryReductionInParallel(Reproducer<G> reproducer, G newGlobalState, List<Query<C>> statements)
+            throws Exception {
+        int subLength = statements.size() / partitionNum;
+        List<List<Query<C>>> candidates = new ArrayList<>();
+        for (int start = 0; start < statements.size(); start += subLength) {
+            if (!hasNotReachedLimit(currentReduceSteps + candidates.size(), maxReduceSteps)) {
+                break;
+            }
+            List<Query<C>> candidateStatements = new ArrayList<>(statements);
+            candidateStatements.subList(start, Math.min(start + subLength, statements.size())).clear();
+            candidates.add(candidateStatements);
+        }
+
+        // candidates after the first one known to trigger the bug are not tested anymore
+        AtomicInteger firstTriggering = new AtomicInteger(candidates.size());
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            int candidateIndex = i;
+            results.add(executor.submit(() -> {
+                if (candidateIndex > firstTriggering.get() || hasReachedTimeLimit()) {
+                    return false;
+                }
+                boolean triggers = testCandidate(reproducer, candidates.get(candidateIndex));
+                if (triggers) {
+                    firstTriggering.accumulateAndGet(candidateIndex, Math::min);
+                }
+                return triggers;
+            }));
+        }
+
+        List<Query<C>> reducedStatements = statements;
+        for (int i = 0; i < candidates.size(); i++) {
+            boolean triggers = results.get(i).get();
+            currentReduceSteps++;
+            if (triggers) {
+                observedChange = true;
+                reducedStatements = candidates.get(i);
+                partitionNum = Math.max(partitionNum - 1, 2);
+                newGlobalState.getState().setStatements(new ArrayList<>(reducedStatements));
+                newGlobalState.getLogger().logReduced(newGlobalState.getState());
+                break;
+            }
+        }
+        for (Future<Boolean> result : results) {
+            // wait for the remaining candidates, so that their databases are no longer used
+            result.get();
+        }
+        currentReduceTime = Duration.between(timeOfReductionBegins, Instant.now()).getSeconds();
+        return reducedStatements;
+    }
+
+    private boolean hasReachedTimeLimit() {
+        return !hasNotReachedLimit(Duration.between(timeOfReductionBegins, Instant.now()).getSeconds(), maxReduceTime);
+    }
+
+    private boolean testCandidate(Reproducer<G> reproducer, List<Query<C>> candidateStatements)
+            throws InterruptedException {
+        G workerState = workerStates.take();
+        if (workerState.getRandomly() == null) {
+            // created in the worker thread, since the constructor reseeds the random generator of the current thread
+            workerState.setRandomly(new Randomly());
+        }
+        try (C con = provider.createDatabase(workerState)) {
+            workerState.setConnection(con);
+            workerState.getState().setStatements(new ArrayList<>(candidateStatements));
+            executeStatements(workerState, candidateStatements);
+            return reproducer.bugStillTriggers(workerState);
+        } catch (Throwable ignoredException) {
+            return false;
+        } finally {
+            workerStates.put(workerState);
+        }
+    }
+
+    // each worker uses its own global state and database, which is named after the database being reduced
+    private void startWorkers(G newGlobalState, int nrThreads) {
+        workerStates = new ArrayBlockingQueue<>(nrThreads);
+        for (int i = 0; i < nrThreads; i++) {
+            String databaseName = newGlobalState.getDatabaseName() + "-reduce-" + i;
+            G workerState;
+            try {
+                workerState = provider.getGlobalStateClass().getDeclaredConstructor().newInstance();
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+            workerState.setDatabaseName(databaseName);
+            workerState.setMainOptions(newGlobalState.getOptions());
+            workerState.setDbmsSpecificOptions(newGlobalState.getDbmsSpecificOptions());
+            workerState.setState(provider.getStateToReproduce(databaseName));
+            workerState.setStateLogger(new Main.StateLogger(databaseName, provider, newGlobalState.getOptions()));
+            workerState.setManager(new Main.QueryManager<>(workerState));
+            workerStates.add(workerState);
+        }
+        executor = Executors.newFixedThreadPool(nrThreads);
+    }
+
+    private void stopWorkers() throws IOException, InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            // the workers' loggers are closed only after no worker uses them anymore
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            executor = null;
+            for (G workerState : workerStates) {
+                workerState.getLogger().closeDatabaseFileWriters();
+            }
+            workerStates = null;
+        }
+    }
+
+    private C createDatabase(G newGlobalState, int checkpointLength) throws Exception {
+        if (checkpointLength == 0) {
+            return provider.createDatabase(newGlobalState);
+        } else {
+            return provider.restoreSnapshot(newGlobalState, CHECKPOINT_SNAPSHOT_NAME);
+        }
+    }
+
+    private void executeStatements(G newGlobalState, List<Query<C>> statements) {
+        for (Query<C> s : statements) {
+            try {
+                s.execute(newGlobalState);
+            } catch (Throwable ignoredException) {
+                // ignore
+            }
+        }
+    }
+
+    // extends the checkpoint snapshot so that it contains the effects of the first newLength statements; returns the
+    // number of statements contained in the checkpoint, which is 0 if no snapshot could be taken
+    private int advanceCheckpoint(G newGlobalState, List<Query<C>> statements, int checkpointLength, int newLength) {
+        try (C con = createDatabase(newGlobalState, checkpointLength)) {
+            newGlobalState.setConnection(con);
+            newGlobalState.getState().setStatements(new ArrayList<>(statements.subList(0, newLength)));
+            executeStatements(newGlobalState, statements.subList(checkpointLength, newLength));
+            if (provider.takeSnapshot(newGlobalState, CHECKPOINT_SNAPSHOT_NAME)) {
+                snapshotTaken = true;
+                return newLength;
+            }
+            return 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            useSnapshots = false;
+            return 0;
+        }
+    }
+
     @SuppressWarnings("unused")
     private void printQueries(List<Query<C>> statements) {
         System.out.println("===============================");
@@ -323,7 +323,7 @@ public class CitusProvider extends PostgresProvider {
         List<TestOracle<PostgresGlobalState>> oracles = ((CitusOptions) globalState
                 .getDbmsSpecificOptions()).citusOracle.stream().map(o -> {
                     try {
-                        return o.create(globalState);
+                        return createTestOracle(o, globalState);
                     } catch (Exception e1) {
                         throw new AssertionError(e1);
                     }
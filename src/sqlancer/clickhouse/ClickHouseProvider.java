@@ -2,6 +2,7 @@ package sqlancer.clickhouse;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.stream.Collectors;
@@ -21,6 +22,7 @@ import sqlancer.clickhouse.ClickHouseProvider.ClickHouseGlobalState;
 import sqlancer.clickhouse.gen.ClickHouseCommon;
 import sqlancer.clickhouse.gen.ClickHouseInsertGenerator;
 import sqlancer.clickhouse.gen.ClickHouseTableGenerator;
+import sqlancer.common.ReadinessProbe;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
 
@@ -131,16 +133,12 @@ public class ClickHouseProvider extends SQLProviderAdapter<ClickHouseGlobalState
         globalState.getState().logStatement(useDatabaseCommand);
         try (Statement s = con.createStatement()) {
             s.execute(dropDatabaseCommand);
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
         }
+        awaitDatabaseExistence(con, databaseName, false);
         try (Statement s = con.createStatement()) {
             s.execute(createDatabaseCommand);
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
         }
+        awaitDatabaseExistence(con, databaseName, true);
         con.close();
         con = DriverManager.getConnection(
                 String.format("jdbc:clickhouse://%s:%d/%s?socket_timeout=300000%s", host, port, databaseName,
@@ -149,6 +147,17 @@ public class ClickHouseProvider extends SQLProviderAdapter<ClickHouseGlobalState
         return new SQLConnection(con);
     }
 
+    // dropping and creating a database might take effect only after the statement returns
+    private static void awaitDatabaseExistence(Connection con, String databaseName, boolean exists)
+            throws SQLException {
+        ReadinessProbe.awaitReady(() -> {
+            try (Statement s = con.createStatement(); ResultSet rs = s
+                    .executeQuery("SELECT count() FROM system.databases WHERE name = '" + databaseName + "'")) {
+                return rs.next() && rs.getLong(1) > 0 == exists;
+            }
+        }, ReadinessProbe.DEFAULT_TIMEOUT_MILLIS);
+    }
+
     @Override
     public String getDBMSName() {
         return "clickhouse";
@@ -17,7 +17,9 @@ public class CnosDBGlobalState extends GlobalState<CnosDBOptions, CnosDBSchema,
             getLogger().writeCurrent(" -- " + timer.end().asString());
         }
         if (q.couldAffectSchema()) {
-            updateSchema();
+            invalidateSchema();
+        } else if (success) {
+            registerWrite(q);
         }
     }
 
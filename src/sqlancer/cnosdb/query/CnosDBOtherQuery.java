@@ -2,6 +2,7 @@ package sqlancer.cnosdb.query;
 
 import sqlancer.GlobalState;
 import sqlancer.IgnoreMeException;
+import sqlancer.Main;
 import sqlancer.cnosdb.client.CnosDBConnection;
 import sqlancer.common.query.ExpectedErrors;
 
@@ -20,7 +21,9 @@ public class CnosDBOtherQuery extends CnosDBQueryAdapter {
             throws Exception {
         try {
             globalState.getConnection().getClient().execute(query);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
         } catch (Exception e) {
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
             if (this.errors.errorIsExpected(e.getMessage())) {
                 throw new IgnoreMeException();
             }
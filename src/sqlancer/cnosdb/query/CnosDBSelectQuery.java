@@ -1,6 +1,7 @@
 package sqlancer.cnosdb.query;
 
 import sqlancer.GlobalState;
+import sqlancer.Main;
 import sqlancer.cnosdb.client.CnosDBConnection;
 import sqlancer.cnosdb.client.CnosDBResultSet;
 import sqlancer.common.query.ExpectedErrors;
@@ -21,14 +22,26 @@ public class CnosDBSelectQuery extends CnosDBQueryAdapter {
     @Override
     public <G extends GlobalState<?, ?, CnosDBConnection>> boolean execute(G globalState, String... fills)
             throws Exception {
-        globalState.getConnection().getClient().execute(query);
+        try {
+            globalState.getConnection().getClient().execute(query);
+        } catch (Exception e) {
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
+            throw e;
+        }
+        Main.NR_SUCCESSFUL_ACTIONS.increment();
         return false;
     }
 
     @Override
     public <G extends GlobalState<?, ?, CnosDBConnection>> SQLancerResultSet executeAndGet(G globalState,
             String... fills) throws Exception {
-        resultSet = globalState.getConnection().getClient().executeQuery(query);
+        try {
+            resultSet = globalState.getConnection().getClient().executeQuery(query);
+        } catch (Exception e) {
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
+            throw e;
+        }
+        Main.NR_SUCCESSFUL_ACTIONS.increment();
         return null;
     }
 
@@ -28,19 +28,6 @@ public final class DBMSCommon {
         return matcher.matches();
     }
 
-    public static int getMaxIndexInDoubleArray(double... doubleArray) {
-        int maxIndex = 0;
-        double maxValue = 0.0;
-        for (int j = 0; j < doubleArray.length; j++) {
-            double curReward = doubleArray[j];
-            if (curReward > maxValue) {
-                maxIndex = j;
-                maxValue = curReward;
-            }
-        }
-        return maxIndex;
-    }
-
     public static boolean areQueryPlanSequencesSimilar(List<String> list1, List<String> list2) {
         return editDistance(list1, list2) <= 1;
     }
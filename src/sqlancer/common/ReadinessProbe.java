@@ -0,0 +1,133 @@
+package sqlancer.common;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Waits until the DBMS has completed an operation that takes effect asynchronously (e.g., creating a database or table)
+ * by repeatedly executing a cheap probe, with exponentially increasing delays between the attempts. In contrast to
+ * sleeping for a fixed time, this waits only as long as needed when the DBMS is fast, and long enough when it is slow.
+ */
+public final class ReadinessProbe {
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30000;
+    private static final long INITIAL_DELAY_MILLIS = 10;
+    private static final long MAX_DELAY_MILLIS = 1000;
+
+    private ReadinessProbe() {
+    }
+
+    @FunctionalInterface
+    public interface Attempt<T> {
+        /**
+         * Tries to obtain a value, which fails while the DBMS is not ready yet.
+         *
+         * @return the value, or null if the DBMS is not ready yet
+         *
+         * @throws SQLException
+         *             if the DBMS is not ready yet
+         */
+        T get() throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface Probe {
+        /**
+         * Checks whether the DBMS is ready.
+         *
+         * @return whether the DBMS is ready
+         *
+         * @throws SQLException
+         *             if the DBMS is not ready yet
+         */
+        boolean isReady() throws SQLException;
+    }
+
+    /**
+     * Waits until a probe succeeds.
+     *
+     * @param probe
+     *            the probe
+     * @param timeoutMillis
+     *            the maximum time to wait
+     *
+     * @throws SQLException
+     *             if the probe did not succeed within the timeout; its cause is the exception of the last attempt, if
+     *             any
+     */
+    public static void awaitReady(Probe probe, long timeoutMillis) throws SQLException {
+        awaitReady(probe, e -> true, timeoutMillis);
+    }
+
+    /**
+     * Waits until a probe succeeds, but fails as soon as the probe throws an exception that does not indicate that the
+     * DBMS is not ready yet.
+     *
+     * @param probe
+     *            the probe
+     * @param isTransient
+     *            whether an exception thrown by the probe indicates that the DBMS is not ready yet
+     * @param timeoutMillis
+     *            the maximum time to wait
+     *
+     * @throws SQLException
+     *             the first exception of the probe that is not transient, or an exception if the probe did not succeed
+     *             within the timeout
+     */
+    public static void awaitReady(Probe probe, Predicate<SQLException> isTransient, long timeoutMillis)
+            throws SQLException {
+        poll(() -> probe.isReady() ? Boolean.TRUE : null, isTransient, timeoutMillis);
+    }
+
+    /**
+     * Repeats an attempt until it obtains a value.
+     *
+     * @param <T>
+     *            the type of the value
+     * @param attempt
+     *            the attempt
+     * @param timeoutMillis
+     *            the maximum time to wait
+     *
+     * @return the value obtained by the first successful attempt
+     *
+     * @throws SQLException
+     *             if no attempt succeeded within the timeout; its cause is the exception of the last attempt, if any
+     */
+    public static <T> T poll(Attempt<T> attempt, long timeoutMillis) throws SQLException {
+        return poll(attempt, e -> true, timeoutMillis);
+    }
+
+    private static <T> T poll(Attempt<T> attempt, Predicate<SQLException> isTransient, long timeoutMillis)
+            throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long delay = INITIAL_DELAY_MILLIS;
+        while (true) {
+            SQLException lastException = null;
+            try {
+                T value = attempt.get();
+                if (value != null) {
+                    return value;
+                }
+            } catch (SQLException e) {
+                if (!isTransient.test(e)) {
+                    throw e;
+                }
+                lastException = e;
+            }
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                throw new SQLException(String.format("the DBMS was not ready after %d ms", timeoutMillis),
+                        lastException);
+            }
+            try {
+                Thread.sleep(Math.min(delay, remaining));
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            delay = Math.min(delay * 2, MAX_DELAY_MILLIS);
+        }
+    }
+
+}
@@ -2,13 +2,31 @@ package sqlancer.common.ast.newast;
 
 import java.util.List;
 
+import sqlancer.common.visitor.RenderingCache;
+
 public abstract class NewToStringVisitor<E> {
 
     protected final StringBuilder sb = new StringBuilder();
+    private final RenderingCache renderingCache = RenderingCache.getCurrent();
 
-    @SuppressWarnings("unchecked")
     public void visit(E expr) {
         assert expr != null;
+        if (renderingCache != null && renderingCache.isRegistered(expr)) {
+            String rendering = renderingCache.getRendering(expr);
+            if (rendering == null) {
+                int start = sb.length();
+                dispatch(expr);
+                renderingCache.setRendering(expr, sb.substring(start));
+            } else {
+                sb.append(rendering);
+            }
+        } else {
+            dispatch(expr);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch(E expr) {
         if (expr instanceof ColumnReferenceNode<?, ?>) {
             sb.append(((ColumnReferenceNode<?, ?>) expr).getColumn().getFullQualifiedName());
         } else if (expr instanceof NewUnaryPostfixOperatorNode<?>) {
@@ -3,33 +3,87 @@ package sqlancer.common.oracle;
 import java.util.List;
 
 import sqlancer.GlobalState;
+import sqlancer.Randomly;
 
+/**
+ * Runs several test oracles on the same database. By default, the oracles are checked in a round-robin fashion. With
+ * adaptive scheduling, each oracle is instead chosen with a probability that is proportional to the number of checks
+ * that it completes per second (i.e., that neither took long nor threw an {@link sqlancer.IgnoreMeException}), so that
+ * more time is spent on oracles that are productive on the current database. Every oracle keeps a minimum share of the
+ * checks, so that their yield is re-estimated as the database changes.
+ *
+ * Each call of {@link #check()} checks a single oracle, so the caller counts it as a single query.
+ *
+ * @param <G>
+ *            the global state type
+ */
 public class CompositeTestOracle<G extends GlobalState<?, ?, ?>> implements TestOracle<G> {
 
+    // the number of checks of each oracle before their observed yields are used
+    private static final int MIN_CHECKS_PER_ORACLE = 10;
+    // the fraction of checks that is distributed uniformly across the oracles
+    private static final double EXPLORATION_SHARE = 0.1;
+
     private final List<TestOracle<G>> oracles;
-    private final G globalState;
+    private final boolean adaptive;
+    private final long[] nrChecks;
+    private final long[] nrCompletedChecks;
+    private final long[] checkNanos;
     private int i;
     private int iLast;
 
     public CompositeTestOracle(List<TestOracle<G>> oracles, G globalState) {
-        this.globalState = globalState;
         this.oracles = oracles;
+        this.adaptive = globalState.getOptions().useAdaptiveOracleScheduling();
+        this.nrChecks = new long[oracles.size()];
+        this.nrCompletedChecks = new long[oracles.size()];
+        this.checkNanos = new long[oracles.size()];
     }
 
     @Override
     public void check() throws Exception {
+        int current = adaptive ? selectOracle() : i;
+        long startNanos = System.nanoTime();
+        boolean completed = false;
         try {
-            oracles.get(i).check();
-            iLast = i;
-            boolean lastOracleIndex = i == oracles.size() - 1;
-            if (!lastOracleIndex) {
-                globalState.getManager().incrementSelectQueryCount();
-            }
+            oracles.get(current).check();
+            completed = true;
+            iLast = current;
         } finally {
+            nrChecks[current]++;
+            if (completed) {
+                nrCompletedChecks[current]++;
+            }
+            checkNanos[current] += System.nanoTime() - startNanos;
             i = (i + 1) % oracles.size();
         }
     }
 
+    private int selectOracle() {
+        for (int j = 0; j < oracles.size(); j++) {
+            if (nrChecks[j] < MIN_CHECKS_PER_ORACLE) {
+                return j;
+            }
+        }
+        double totalYield = 0;
+        for (int j = 0; j < oracles.size(); j++) {
+            totalYield += getYield(j);
+        }
+        double selection = Randomly.getPercentage();
+        for (int j = 0; j < oracles.size() - 1; j++) {
+            selection -= (1 - EXPLORATION_SHARE) * getYield(j) / totalYield + EXPLORATION_SHARE / oracles.size();
+            if (selection < 0) {
+                return j;
+            }
+        }
+        return oracles.size() - 1;
+    }
+
+    // completed checks per second; the +1 avoids starving an oracle that has not completed any checks yet
+    private double getYield(int oracleIndex) {
+        return (nrCompletedChecks[oracleIndex] + 1) / (checkNanos[oracleIndex] / 1e9 + 1e-9);
+    }
+
     @Override
     public String getLastQueryString() {
         return oracles.get(iLast).getLastQueryString();
@@ -19,6 +19,7 @@ import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTable;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.visitor.RenderingCache;
 
 public class NoRECOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C>, E extends Expression<C>, S extends AbstractSchema<?, T>, T extends AbstractTable<C, ?, ?>, C extends AbstractTableColumn<?, ?>, G extends SQLGlobalState<?, S>>
         implements TestOracle<G> {
@@ -70,15 +71,17 @@ public class NoRECOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C>,
         E randomWhereCondition = gen.generateBooleanExpression();
 
         boolean shouldUseAggregate = Randomly.getBoolean();
-        String optimizedQueryString = gen.generateOptimizedQueryString(select, randomWhereCondition,
-                shouldUseAggregate);
+        String optimizedQueryString;
+        String unoptimizedQueryString;
+        // both queries contain the FROM clause and the condition, which are thus rendered only once
+        try (RenderingCache cache = RenderingCache.open()) {
+            cache.register(select.getJoinClauses()).register(select.getFromList()).register(randomWhereCondition);
+            optimizedQueryString = gen.generateOptimizedQueryString(select, randomWhereCondition, shouldUseAggregate);
+            unoptimizedQueryString = gen.generateUnoptimizedQueryString(select, randomWhereCondition);
+        }
         lastQueryString = optimizedQueryString;
         if (state.getOptions().logEachSelect()) {
             state.getLogger().writeCurrent(optimizedQueryString);
-        }
-
-        String unoptimizedQueryString = gen.generateUnoptimizedQueryString(select, randomWhereCondition);
-        if (state.getOptions().logEachSelect()) {
             state.getLogger().writeCurrent(unoptimizedQueryString);
         }
 
@@ -5,6 +5,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import sqlancer.ComparatorHelper;
+import sqlancer.IgnoreMeException;
+import sqlancer.MultisetFingerprint;
 import sqlancer.Randomly;
 import sqlancer.Reproducer;
 import sqlancer.SQLGlobalState;
@@ -17,6 +19,7 @@ import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTable;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.visitor.RenderingCache;
 
 public class TLPWhereOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C>, E extends Expression<C>, S extends AbstractSchema<?, T>, T extends AbstractTable<C, ?, ?>, C extends AbstractTableColumn<?, ?>, G extends SQLGlobalState<?, S>>
         implements TestOracle<G> {
@@ -34,32 +37,29 @@ public class TLPWhereOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C
         final String secondQueryString;
         final String thirdQueryString;
         final String originalQueryString;
-        final List<String> resultSet;
         final boolean orderBy;
 
         TLPWhereReproducer(String firstQueryString, String secondQueryString, String thirdQueryString,
-                String originalQueryString, List<String> resultSet, boolean orderBy) {
+                String originalQueryString, boolean orderBy) {
             this.firstQueryString = firstQueryString;
             this.secondQueryString = secondQueryString;
             this.thirdQueryString = thirdQueryString;
             this.originalQueryString = originalQueryString;
-            this.resultSet = resultSet;
             this.orderBy = orderBy;
         }
 
         @Override
         public boolean bugStillTriggers(G globalState) {
             try {
-                List<String> combinedString1 = new ArrayList<>();
-                List<String> secondResultSet1 = ComparatorHelper.getCombinedResultSet(firstQueryString,
-                        secondQueryString, thirdQueryString, combinedString1, !orderBy, globalState, errors);
-                ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet1, originalQueryString,
-                        combinedString1, globalState);
-            } catch (AssertionError triggeredError) {
-                return true;
-            } catch (SQLException ignored) {
+                MultisetFingerprint firstFingerprint = ComparatorHelper.getResultSetRowsFingerprint(originalQueryString,
+                        errors, globalState);
+                MultisetFingerprint secondFingerprint = ComparatorHelper.getCombinedResultSetRowsFingerprint(
+                        firstQueryString, secondQueryString, thirdQueryString, new ArrayList<>(), !orderBy, globalState,
+                        errors);
+                return isMismatch(firstFingerprint, secondFingerprint, globalState);
+            } catch (IgnoreMeException | SQLException ignored) {
+                return false;
             }
-            return false;
         }
     }
 
@@ -87,34 +87,67 @@ public class TLPWhereOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C
         select.setFromList(gen.getTableRefs());
         select.setWhereClause(null);
 
-        String originalQueryString = select.asString();
-        generatedQueryString = originalQueryString;
-        List<String> firstResultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors,
-                state);
-
         boolean orderBy = Randomly.getBooleanWithSmallProbability();
-        if (orderBy) {
-            select.setOrderByClauses(gen.generateOrderBys());
-        }
-
         TestOracleUtils.PredicateVariants<E, C> predicates = TestOracleUtils.initializeTernaryPredicateVariants(gen,
                 gen.generateBooleanExpression());
-        select.setWhereClause(predicates.predicate);
-        String firstQueryString = select.asString();
-        select.setWhereClause(predicates.negatedPredicate);
-        String secondQueryString = select.asString();
-        select.setWhereClause(predicates.isNullPredicate);
-        String thirdQueryString = select.asString();
+        String originalQueryString;
+        String firstQueryString;
+        String secondQueryString;
+        String thirdQueryString;
+        // the queries differ only in their WHERE and ORDER BY clauses, so the other clauses are rendered only once
+        try (RenderingCache cache = RenderingCache.open()) {
+            cache.register(select.getFetchColumns()).register(select.getJoinClauses()).register(select.getFromList())
+                    .register(predicates.predicate);
+            originalQueryString = select.asString();
+            if (orderBy) {
+                select.setOrderByClauses(gen.generateOrderBys());
+                cache.register(select.getOrderByClauses());
+            }
+            select.setWhereClause(predicates.predicate);
+            firstQueryString = select.asString();
+            select.setWhereClause(predicates.negatedPredicate);
+            secondQueryString = select.asString();
+            select.setWhereClause(predicates.isNullPredicate);
+            thirdQueryString = select.asString();
+        }
+        generatedQueryString = originalQueryString;
+        MultisetFingerprint firstFingerprint = ComparatorHelper.getResultSetRowsFingerprint(originalQueryString, errors,
+                state);
 
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
-                thirdQueryString, combinedString, !orderBy, state, errors);
+        MultisetFingerprint secondFingerprint = ComparatorHelper.getCombinedResultSetRowsFingerprint(firstQueryString,
+                secondQueryString, thirdQueryString, combinedString, !orderBy, state, errors);
+        if (!isMismatch(firstFingerprint, secondFingerprint, state)) {
+            return;
+        }
+        reproducer = new TLPWhereReproducer(firstQueryString, secondQueryString, thirdQueryString, originalQueryString,
+                orderBy);
 
+        // the result sets differ; they are materialized only to report the difference
+        List<String> firstResultSet = ComparatorHelper.getResultSetRowsAsString(originalQueryString, errors, state);
+        combinedString.clear();
+        List<String> secondResultSet = ComparatorHelper.getCombinedResultSetRows(firstQueryString, secondQueryString,
+                thirdQueryString, combinedString, !orderBy, state, errors);
         ComparatorHelper.assumeResultSetsAreEqual(firstResultSet, secondResultSet, originalQueryString, combinedString,
                 state);
 
-        reproducer = new TLPWhereReproducer(firstQueryString, secondQueryString, thirdQueryString, originalQueryString,
-                firstResultSet, orderBy);
+        // the difference did not reproduce when the queries were executed again, which is still reported
+        String combinedQueryString = String.join(";", combinedString);
+        state.getState().getLocalState().log(
+                String.format("-- %s;" + System.lineSeparator() + "-- %s;", originalQueryString, combinedQueryString));
+        throw new AssertionError(String.format(
+                "The result sets mismatch (%s and %s), but not when the queries were executed again!"
+                        + System.lineSeparator() + "First query: \"%s\"" + System.lineSeparator()
+                        + "Second query: \"%s\"",
+                firstFingerprint, secondFingerprint, originalQueryString, combinedQueryString));
+    }
+
+    private static boolean isMismatch(MultisetFingerprint firstFingerprint, MultisetFingerprint secondFingerprint,
+            SQLGlobalState<?, ?> globalState) {
+        if (globalState.getOptions().validateResultSizeOnly()) {
+            return firstFingerprint.getCount() != secondFingerprint.getCount();
+        }
+        return !firstFingerprint.equals(secondFingerprint);
     }
 
     @Override
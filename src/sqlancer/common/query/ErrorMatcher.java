@@ -0,0 +1,307 @@
+package sqlancer.common.query;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+/**
+ * Decides whether an error message matches a set of expected errors. The substrings are compiled into an Aho-Corasick
+ * automaton, so that a message is scanned once regardless of the number of substrings, and the regular expressions are
+ * combined into a single alternation where possible. The verdicts for recently classified messages are cached.
+ *
+ * Since providers create new {@link ExpectedErrors} with the same contents for many statements, matchers are interned
+ * by the contents that they were compiled from, and can be shared by several threads. To look up the matcher without
+ * copying the contents, {@link ExpectedErrors} maintains an order-independent hash of them as errors are added (see
+ * {@link #hash(String)} and {@link #hash(Pattern)}); the contents are then only compared with those of the matcher.
+ */
+final class ErrorMatcher {
+
+    private static final int MAX_INTERNED_MATCHERS = 1024;
+    // a power of two
+    private static final int MAX_CACHED_VERDICTS = 256;
+    private static final Map<Long, ErrorMatcher> INTERNED = new ConcurrentHashMap<>();
+    // back references and named groups could clash with the groups of other patterns in an alternation, and an
+    // unterminated quote would extend into the other patterns
+    private static final Pattern NOT_COMBINABLE = Pattern.compile("\\\\\\d|\\\\k<|\\(\\?<[a-zA-Z]|\\\\Q");
+
+    // the transitions of each state, as the sorted characters and the corresponding target states
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] failure;
+    private final boolean[] accepting;
+    private final List<Pattern> patterns;
+    private final VerdictCache verdicts = new VerdictCache();
+    // the contents that the matcher was compiled from, with the flags of each regex by its source
+    private final Set<String> substrings;
+    private final List<List<String>> substringLists;
+    private final Map<String, Integer> regexFlags = new HashMap<>();
+
+    private ErrorMatcher(Set<String> substrings, List<List<String>> substringLists, Set<Pattern> regexes) {
+        this.substrings = Set.copyOf(substrings);
+        this.substringLists = List.copyOf(substringLists);
+        for (Pattern regex : regexes) {
+            regexFlags.put(regex.pattern(), regex.flags());
+        }
+        List<String> allSubstrings = new ArrayList<>(substrings);
+        for (List<String> list : substringLists) {
+            allSubstrings.addAll(list);
+        }
+        List<TreeMap<Character, Integer>> transitions = new ArrayList<>();
+        List<Boolean> isAccepting = new ArrayList<>();
+        transitions.add(new TreeMap<>());
+        isAccepting.add(false);
+        for (String substring : allSubstrings) {
+            int state = 0;
+            for (int i = 0; i < substring.length(); i++) {
+                Integer next = transitions.get(state).get(substring.charAt(i));
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.get(state).put(substring.charAt(i), next);
+                    transitions.add(new TreeMap<>());
+                    isAccepting.add(false);
+                }
+                state = next;
+            }
+            isAccepting.set(state, true);
+        }
+        int nrStates = transitions.size();
+        labels = new char[nrStates][];
+        targets = new int[nrStates][];
+        accepting = new boolean[nrStates];
+        for (int state = 0; state < nrStates; state++) {
+            TreeMap<Character, Integer> stateTransitions = transitions.get(state);
+            labels[state] = new char[stateTransitions.size()];
+            targets[state] = new int[stateTransitions.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> transition : stateTransitions.entrySet()) {
+                labels[state][i] = transition.getKey();
+                targets[state][i] = transition.getValue();
+                i++;
+            }
+            accepting[state] = isAccepting.get(state);
+        }
+        failure = computeFailureLinks();
+        patterns = combine(regexes);
+    }
+
+    // breadth-first, so that the failure link of a state's longest proper suffix is known when the state is visited
+    private int[] computeFailureLinks() {
+        int[] links = new int[labels.length];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            for (int i = 0; i < labels[state].length; i++) {
+                int child = targets[state][i];
+                int link = links[state];
+                int next = getTransition(link, labels[state][i]);
+                while (next == -1 && link != 0) {
+                    link = links[link];
+                    next = getTransition(link, labels[state][i]);
+                }
+                links[child] = next == -1 ? 0 : next;
+                // a state also accepts if a suffix of its string is a substring
+                accepting[child] |= accepting[links[child]];
+                queue.add(child);
+            }
+        }
+        return links;
+    }
+
+    private int getTransition(int state, char c) {
+        int index = Arrays.binarySearch(labels[state], c);
+        return index < 0 ? -1 : targets[state][index];
+    }
+
+    private static List<Pattern> combine(Collection<Pattern> regexes) {
+        List<Pattern> result = new ArrayList<>();
+        List<String> combinable = new ArrayList<>();
+        for (Pattern regex : regexes) {
+            if (regex.flags() == 0 && !NOT_COMBINABLE.matcher(regex.pattern()).find()) {
+                combinable.add("(?:" + regex.pattern() + ")");
+            } else {
+                result.add(regex);
+            }
+        }
+        if (!combinable.isEmpty()) {
+            result.add(Pattern.compile(String.join("|", combinable)));
+        }
+        return result;
+    }
+
+    static ErrorMatcher get(Set<String> substrings, List<List<String>> substringLists, Set<Pattern> regexes,
+            long contentHash) {
+        ErrorMatcher matcher = INTERNED.get(contentHash);
+        if (matcher != null && matcher.isCompiledFrom(substrings, substringLists, regexes)) {
+            return matcher;
+        }
+        if (INTERNED.size() >= MAX_INTERNED_MATCHERS) {
+            INTERNED.clear();
+        }
+        matcher = new ErrorMatcher(substrings, substringLists, regexes);
+        INTERNED.put(contentHash, matcher);
+        return matcher;
+    }
+
+    // compares the contents without allocating; ExpectedErrors adds each list and each regex source and flags only
+    // once, so that the lists can be compared by identity and the regexes by source
+    private boolean isCompiledFrom(Set<String> otherSubstrings, List<List<String>> otherSubstringLists,
+            Set<Pattern> otherRegexes) {
+        if (!substrings.equals(otherSubstrings) || substringLists.size() != otherSubstringLists.size()
+                || regexFlags.size() != otherRegexes.size()) {
+            return false;
+        }
+        for (List<String> list : otherSubstringLists) {
+            if (!containsList(list)) {
+                return false;
+            }
+        }
+        for (Pattern regex : otherRegexes) {
+            Integer flags = regexFlags.get(regex.pattern());
+            if (flags == null || flags != regex.flags()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean containsList(List<String> list) {
+        for (List<String> substringList : substringLists) {
+            if (substringList == list) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the hash of an expected substring, which is added up for all substrings and regexes of an
+     * {@link ExpectedErrors}.
+     *
+     * @param substring
+     *            the expected substring
+     *
+     * @return the hash
+     */
+    static long hash(String substring) {
+        return mix(substring.hashCode());
+    }
+
+    /**
+     * Returns the hash of a list of expected substrings that cannot be modified, which is added up for all substrings
+     * and regexes of an {@link ExpectedErrors}. Since such lists are shared instead of copied, they are hashed by
+     * identity.
+     *
+     * @param substrings
+     *            the list of expected substrings
+     *
+     * @return the hash
+     */
+    static long hash(List<String> substrings) {
+        return mix(System.identityHashCode(substrings) + 0x632BE59BD9B4E019L);
+    }
+
+    /**
+     * Returns the hash of an expected regex, which is added up for all substrings and regexes of an
+     * {@link ExpectedErrors}.
+     *
+     * @param regex
+     *            the expected regex
+     *
+     * @return the hash
+     */
+    static long hash(Pattern regex) {
+        // distinguishes a regex from a substring with the same source
+        return mix(31L * regex.pattern().hashCode() + regex.flags() + 0x9E3779B97F4A7C15L);
+    }
+
+    // the finalizer of SplitMix64, so that the sum of the hashes of different contents rarely collides
+    private static long mix(long value) {
+        long h = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    boolean matches(String error) {
+        Boolean verdict = verdicts.get(error);
+        if (verdict == null) {
+            verdict = containsSubstring(error) || matchesRegex(error);
+            verdicts.put(error, verdict);
+        }
+        return verdict;
+    }
+
+    private boolean containsSubstring(String error) {
+        int state = 0;
+        if (accepting[state]) { // the empty string is expected
+            return true;
+        }
+        for (int i = 0; i < error.length(); i++) {
+            char c = error.charAt(i);
+            int next = getTransition(state, c);
+            while (next == -1 && state != 0) {
+                state = failure[state];
+                next = getTransition(state, c);
+            }
+            state = next == -1 ? 0 : next;
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesRegex(String error) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(error).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Verdict {
+
+        private final String error;
+        private final boolean isExpected;
+
+        Verdict(String error, boolean isExpected) {
+            this.error = error;
+            this.isExpected = isExpected;
+        }
+    }
+
+    // a direct-mapped cache, in which a message replaces the message with the same slot; since the entries are
+    // immutable, the cache is shared by several threads without locking
+    private static final class VerdictCache {
+
+        private final AtomicReferenceArray<Verdict> entries = new AtomicReferenceArray<>(MAX_CACHED_VERDICTS);
+
+        Boolean get(String error) {
+            Verdict verdict = entries.get(getSlot(error));
+            return verdict != null && verdict.error.equals(error) ? verdict.isExpected : null;
+        }
+
+        void put(String error, boolean isExpected) {
+            entries.set(getSlot(error), new Verdict(error, isExpected));
+        }
+
+        private static int getSlot(String error) {
+            int h = error.hashCode();
+            return (h ^ (h >>> 16)) & (MAX_CACHED_VERDICTS - 1);
+        }
+    }
+
+}
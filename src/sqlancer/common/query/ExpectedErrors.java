@@ -1,8 +1,10 @@
 package sqlancer.common.query;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -10,11 +12,23 @@ import java.util.regex.Pattern;
  * This class represents the errors that executing a statement might result in. For example, an INSERT statement might
  * result in an error "UNIQUE constraint violated" when it attempts to insert a duplicate value in a column declared as
  * UNIQUE.
+ *
+ * The expected errors are compiled into a matcher when an error is first checked, which is shared by all instances with
+ * the same contents (see {@link ErrorMatcher}). Adding errors afterwards discards the matcher. To find the shared
+ * matcher without copying the contents, an order-independent hash of them is maintained as errors are added, and lists
+ * that cannot be modified, such as those of {@link List#of}, are kept instead of copying their errors.
  */
 public class ExpectedErrors {
 
+    // the classes of the lists returned by List.of and List.copyOf
+    private static final Set<Class<?>> IMMUTABLE_LISTS = Set
+            .copyOf(Arrays.asList(List.of().getClass(), List.of(0).getClass(), List.of(0, 1, 2).getClass()));
+
     private final Set<String> errors;
+    private final List<List<String>> errorLists = new ArrayList<>();
     private final Set<Pattern> regexes;
+    private long contentHash;
+    private volatile ErrorMatcher matcher;
 
     public ExpectedErrors() {
         this.errors = new HashSet<>();
@@ -22,15 +36,54 @@ public class ExpectedErrors {
     }
 
     public ExpectedErrors(Collection<String> errors, Collection<Pattern> regexErrors) {
-        this.errors = new HashSet<>(errors);
-        this.regexes = new HashSet<>(regexErrors);
+        this();
+        for (String error : errors) {
+            addError(error);
+        }
+        for (Pattern regex : regexErrors) {
+            addPattern(regex);
+        }
+    }
+
+    private void addError(String error) {
+        if (errors.add(error)) {
+            contentHash += ErrorMatcher.hash(error);
+        }
+    }
+
+    private void addErrors(Collection<String> list) {
+        if (IMMUTABLE_LISTS.contains(list.getClass())) {
+            for (List<String> errorList : errorLists) {
+                if (errorList == list) {
+                    return;
+                }
+            }
+            errorLists.add((List<String>) list);
+            contentHash += ErrorMatcher.hash((List<String>) list);
+        } else {
+            for (String error : list) {
+                addError(error);
+            }
+        }
+    }
+
+    // patterns with the same source and flags are only added once, so that ErrorMatcher can compare them by source
+    private void addPattern(Pattern regex) {
+        for (Pattern existing : regexes) {
+            if (existing.flags() == regex.flags() && existing.pattern().equals(regex.pattern())) {
+                return;
+            }
+        }
+        regexes.add(regex);
+        contentHash += ErrorMatcher.hash(regex);
     }
 
     public ExpectedErrors add(String error) {
         if (error == null) {
             throw new IllegalArgumentException();
         }
-        errors.add(error);
+        addError(error);
+        matcher = null;
         return this;
     }
 
@@ -38,17 +91,20 @@ public class ExpectedErrors {
         if (errorPattern == null) {
             throw new IllegalArgumentException();
         }
-        regexes.add(errorPattern);
+        addPattern(errorPattern);
+        matcher = null;
         return this;
     }
 
     public ExpectedErrors addRegexString(String errorPattern) {
-        regexes.add(Pattern.compile(errorPattern));
+        addPattern(Pattern.compile(errorPattern));
+        matcher = null;
         return this;
     }
 
     public ExpectedErrors addAll(Collection<String> list) {
-        errors.addAll(list);
+        addErrors(list);
+        matcher = null;
         return this;
     }
 
@@ -56,14 +112,18 @@ public class ExpectedErrors {
         if (list == null) {
             throw new IllegalArgumentException();
         }
-        regexes.addAll(list);
+        for (Pattern regex : list) {
+            addPattern(regex);
+        }
+        matcher = null;
         return this;
     }
 
     public ExpectedErrors addAllRegexStrings(Collection<String> list) {
         for (String error : list) {
-            regexes.add(Pattern.compile(error));
+            addPattern(Pattern.compile(error));
         }
+        matcher = null;
         return this;
     }
 
@@ -88,17 +148,12 @@ public class ExpectedErrors {
         if (error == null) {
             throw new IllegalArgumentException();
         }
-        for (String s : this.errors) {
-            if (error.contains(s)) {
-                return true;
-            }
-        }
-        for (Pattern p : this.regexes) {
-            if (p.matcher(error).find()) {
-                return true;
-            }
+        ErrorMatcher currentMatcher = matcher;
+        if (currentMatcher == null) {
+            currentMatcher = ErrorMatcher.get(errors, errorLists, regexes, contentHash);
+            matcher = currentMatcher;
         }
-        return false;
+        return currentMatcher.matches(error);
     }
 
     public static class ExpectedErrorsBuilder {
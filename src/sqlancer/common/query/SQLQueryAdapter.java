@@ -4,8 +4,10 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 
 import sqlancer.GlobalState;
+import sqlancer.IgnoreMeException;
 import sqlancer.Main;
 import sqlancer.SQLConnection;
 
@@ -15,6 +17,11 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
     private final ExpectedErrors expectedErrors;
     private final boolean couldAffectSchema;
 
+    @FunctionalInterface
+    public interface ResultSetConsumer {
+        void accept(int queryIndex, SQLancerResultSet result) throws SQLException;
+    }
+
     public SQLQueryAdapter(String query) {
         this(query, new ExpectedErrors());
     }
@@ -99,10 +106,10 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
             } else {
                 s.execute(query);
             }
-            Main.nrSuccessfulActions.addAndGet(1);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             return true;
         } catch (Exception e) {
-            Main.nrUnsuccessfulActions.addAndGet(1);
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
             checkException(e);
             return false;
         } finally {
@@ -143,19 +150,108 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
             } else {
                 result = s.executeQuery(query);
             }
-            Main.nrSuccessfulActions.addAndGet(1);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             if (result == null) {
                 return null;
             }
             return new SQLancerResultSet(result);
         } catch (Exception e) {
             s.close();
-            Main.nrUnsuccessfulActions.addAndGet(1);
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
             checkException(e);
         }
         return null;
     }
 
+    /**
+     * Executes several read-only queries and passes their result sets to the consumer in the order of the queries. If
+     * the connection supports it, all queries are sent in a single round-trip; otherwise, they are executed one after
+     * the other. The result sets are closed after the consumer returns.
+     *
+     * @param <G>
+     *            the type of the global state
+     * @param globalState
+     *            the state whose connection is used
+     * @param queryStrings
+     *            the queries, which must not be terminated by a semicolon
+     * @param errors
+     *            the errors that are expected for any of the queries
+     * @param consumer
+     *            the consumer that reads the result set of each query
+     *
+     * @return false if executing the queries or reading their results caused an expected error
+     *
+     * @throws SQLException
+     *             if the connection cannot create a statement
+     */
+    public static <G extends GlobalState<?, ?, SQLConnection>> boolean executeAndConsumeAll(G globalState,
+            List<String> queryStrings, ExpectedErrors errors, ResultSetConsumer consumer) throws SQLException {
+        // a comment would extend into the queries that follow it in a single round-trip
+        if (queryStrings.size() > 1 && globalState.getConnection().supportsMultiStatementQueries()
+                && queryStrings.stream().noneMatch(q -> q.contains("--"))) {
+            return executeAndConsumeAllPipelined(globalState, queryStrings, errors, consumer);
+        }
+        return executeAndConsumeSequentially(globalState, queryStrings, 0, errors, consumer);
+    }
+
+    private static <G extends GlobalState<?, ?, SQLConnection>> boolean executeAndConsumeSequentially(G globalState,
+            List<String> queryStrings, int firstQueryIndex, ExpectedErrors errors, ResultSetConsumer consumer)
+            throws SQLException {
+        boolean canonicalizeString = globalState.getOptions().canonicalizeSqlString();
+        for (int i = firstQueryIndex; i < queryStrings.size(); i++) {
+            SQLQueryAdapter q = new SQLQueryAdapter(queryStrings.get(i), errors, false, canonicalizeString);
+            try (SQLancerResultSet result = q.executeAndGet(globalState)) {
+                if (result == null) {
+                    return false;
+                }
+                try {
+                    consumer.accept(i, result);
+                } catch (SQLException e) {
+                    q.checkException(e);
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static <G extends GlobalState<?, ?, SQLConnection>> boolean executeAndConsumeAllPipelined(G globalState,
+            List<String> queryStrings, ExpectedErrors errors, ResultSetConsumer consumer) throws SQLException {
+        SQLQueryAdapter batch = new SQLQueryAdapter(String.join("; ", queryStrings), errors, false,
+                globalState.getOptions().canonicalizeSqlString());
+        int nrConsumedQueries = 0;
+        boolean returnedUpdateCount = false;
+        try (Statement s = globalState.getConnection().createStatement()) {
+            try {
+                boolean hasResultSet = s.execute(batch.getQueryString());
+                while (nrConsumedQueries < queryStrings.size()) {
+                    if (!hasResultSet) {
+                        // otherwise, the driver did not execute the remaining queries
+                        returnedUpdateCount = s.getUpdateCount() != -1;
+                        break;
+                    }
+                    consumer.accept(nrConsumedQueries, new SQLancerResultSet(s.getResultSet()));
+                    nrConsumedQueries++;
+                    // implicitly closes the current result set
+                    hasResultSet = s.getMoreResults();
+                }
+                Main.NR_SUCCESSFUL_ACTIONS.add(nrConsumedQueries);
+            } catch (Exception e) {
+                if (e instanceof IgnoreMeException) {
+                    throw (IgnoreMeException) e;
+                }
+                Main.NR_UNSUCCESSFUL_ACTIONS.increment();
+                batch.checkException(e);
+                return false;
+            }
+        }
+        if (returnedUpdateCount) {
+            // the batch was not read-only, so its queries cannot be executed again
+            throw new IgnoreMeException();
+        }
+        return executeAndConsumeSequentially(globalState, queryStrings, nrConsumedQueries, errors, consumer);
+    }
+
     @Override
     public boolean couldAffectSchema() {
         return couldAffectSchema;
@@ -6,6 +6,7 @@ import java.sql.Statement;
 import java.util.function.Consumer;
 
 import sqlancer.GlobalState;
+import sqlancer.Main;
 import sqlancer.SQLConnection;
 
 public class SQLQueryResultCheckAdapter extends SQLQueryAdapter {
@@ -23,8 +24,10 @@ public class SQLQueryResultCheckAdapter extends SQLQueryAdapter {
         try (Statement s = globalState.getConnection().createStatement()) {
             ResultSet rs = s.executeQuery(getQueryString());
             rsChecker.accept(rs);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             return true;
         } catch (Exception e) {
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
             checkException(e);
             return false;
         }
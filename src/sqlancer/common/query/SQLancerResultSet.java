@@ -50,6 +50,10 @@ public class SQLancerResultSet implements Closeable {
         return rs.getLong(i);
     }
 
+    public int getColumnCount() throws SQLException {
+        return rs.getMetaData().getColumnCount();
+    }
+
     public String getType(int i) throws SQLException {
         return rs.getMetaData().getColumnTypeName(i);
     }
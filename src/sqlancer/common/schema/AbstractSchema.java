@@ -4,6 +4,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import sqlancer.GlobalState;
@@ -12,6 +14,24 @@ import sqlancer.Randomly;
 
 public class AbstractSchema<G extends GlobalState<?, ?, ?>, A extends AbstractTable<?, ?, G>> {
 
+    // matches the statement kind (INSERT/REPLACE, UPDATE, DELETE, or TRUNCATE) and the name of the table written to;
+    // a DELETE that names tables before FROM is a multi-table DELETE, whose targets are not determined
+    private static final Pattern WRITE_STATEMENT = Pattern
+            .compile(
+                    "\\s*(?:(INSERT|REPLACE)\\b.*?\\bINTO" + "|(UPDATE)(?:\\s+(?:OR\\s+\\w+|LOW_PRIORITY|IGNORE|ONLY))*"
+                            + "|(DELETE)(?:\\s+(?:LOW_PRIORITY|QUICK|IGNORE))*\\s+FROM(?:\\s+ONLY)?"
+                            + "|(TRUNCATE)(?:\\s+(?:TABLE|ONLY))*)\\s+([^\\s(,;]+)",
+                    Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    // matches what follows the target of an UPDATE, DELETE, or TRUNCATE that has further targets, as in
+    // UPDATE t0, t1 or UPDATE t0 AS a LEFT JOIN t1
+    private static final Pattern FURTHER_TARGETS = Pattern.compile(
+            "(?:\\s+(?:AS\\s+)?(?!(?:SET|WHERE)\\b)\\w+)?\\s*(?:,|\\s(?:(?:NATURAL|LEFT|RIGHT|FULL|INNER|OUTER|CROSS)\\s+)*"
+                    + "(?:JOIN|STRAIGHT_JOIN)\\b)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern WRITE_KEYWORD = Pattern.compile("\\b(?:INSERT|UPDATE|DELETE|REPLACE|MERGE)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern QUOTES = Pattern.compile("[`\"\\[\\]]");
+
     private final List<A> databaseTables;
 
     public AbstractSchema(List<A> databaseTables) {
@@ -144,7 +164,105 @@ public class AbstractSchema<G extends GlobalState<?, ?, ?>, A extends AbstractTa
     }
 
     public boolean containsTableWithZeroRows(G globalState) {
-        return databaseTables.stream().anyMatch(t -> t.getNrRows(globalState) == 0);
+        return databaseTables.stream().anyMatch(t -> t.isEmpty(globalState));
+    }
+
+    /**
+     * Notifies the tables that the given statement was executed. If it is an INSERT, UPDATE, DELETE, or TRUNCATE
+     * statement, the row count of the table that it targets is invalidated. If the statement could write to several
+     * tables (e.g., a multi-table UPDATE or a WITH clause followed by a write), its target cannot be determined (e.g.,
+     * for an UPSERT), or the target is a view, the row counts of all tables are invalidated. Writes by triggers or
+     * foreign key actions are not tracked, so row counts remain estimates.
+     *
+     * Since PQS relies on the sampled rows of the tables being exact, they are invalidated more conservatively: a write
+     * to a table also invalidates the samples of all views, and, if {@link #canWritesAffectOtherTables()}, those of all
+     * tables. Any other statement except for a SELECT (e.g., a ROLLBACK) invalidates the samples of all tables.
+     *
+     * @param query
+     *            the statement that was executed successfully
+     */
+    public void registerWrite(String query) {
+        char firstChar = getFirstChar(query);
+        if (firstChar == 'W') {
+            if (WRITE_KEYWORD.matcher(query).find()) {
+                registerWriteToAllTables();
+            }
+            return;
+        }
+        if (!couldBeWriteStatement(firstChar)) {
+            if (!isSelect(query)) {
+                invalidateSampledRows();
+            }
+            return;
+        }
+        Matcher matcher = WRITE_STATEMENT.matcher(query);
+        if (!matcher.lookingAt()) {
+            registerWriteToAllTables();
+            return;
+        }
+        boolean canRemoveRows = matcher.group(3) != null || matcher.group(4) != null;
+        if (matcher.group(1) == null
+                && FURTHER_TARGETS.matcher(query).region(matcher.end(), query.length()).lookingAt()) {
+            registerWriteToAllTables();
+            return;
+        }
+        String tableName = QUOTES.matcher(matcher.group(5)).replaceAll("");
+        tableName = tableName.substring(tableName.lastIndexOf('.') + 1);
+        for (A table : databaseTables) {
+            if (table.getName().equalsIgnoreCase(tableName) && !table.isView()) {
+                table.registerWrite(canRemoveRows);
+                if (canWritesAffectOtherTables()) {
+                    invalidateSampledRows();
+                } else {
+                    getViews().forEach(AbstractTable::invalidateSampledRows);
+                }
+                return;
+            }
+        }
+        for (A table : databaseTables) {
+            table.registerWrite(canRemoveRows);
+        }
+    }
+
+    // for statements that could have written any of the tables, including removing rows from them
+    private void registerWriteToAllTables() {
+        for (A table : databaseTables) {
+            table.registerWrite(true);
+        }
+    }
+
+    /**
+     * Returns whether a write to a table could also change the rows of other tables that are not views, for example,
+     * due to triggers or foreign key actions. Subclasses that can rule this out allow the sampled rows of the other
+     * tables to be retained.
+     *
+     * @return true if writes could affect other tables
+     */
+    protected boolean canWritesAffectOtherTables() {
+        return true;
+    }
+
+    private void invalidateSampledRows() {
+        databaseTables.forEach(AbstractTable::invalidateSampledRows);
+    }
+
+    private static boolean isSelect(String query) {
+        return query.stripLeading().regionMatches(true, 0, "SELECT", 0, "SELECT".length());
+    }
+
+    private static char getFirstChar(String query) {
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return Character.toUpperCase(c);
+            }
+        }
+        return ' ';
+    }
+
+    // avoids matching the regular expression for the common case of SELECT and DDL statements
+    private static boolean couldBeWriteStatement(char firstChar) {
+        return firstChar == 'I' || firstChar == 'R' || firstChar == 'U' || firstChar == 'D' || firstChar == 'T';
     }
 
 }
@@ -1,7 +1,9 @@
 package sqlancer.common.schema;
 
+import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -18,6 +20,9 @@ public abstract class AbstractTable<C extends AbstractTableColumn<?, ?>, I exten
     private final List<I> indexes;
     private final boolean isView;
     protected long rowCount = NO_ROW_COUNT_AVAILABLE;
+    private boolean knownNonEmpty;
+    // a random sample of the rows used for PQS pivot rows, or null if it has to be obtained again
+    private List<? extends Map<C, ?>> sampledRows;
 
     protected AbstractTable(String name, List<C> columns, List<I> indexes, boolean isView) {
         this.name = name;
@@ -111,6 +116,61 @@ public abstract class AbstractTable<C extends AbstractTableColumn<?, ?>, I exten
 
     public void recomputeCount() {
         rowCount = NO_ROW_COUNT_AVAILABLE;
+        knownNonEmpty = false;
+        sampledRows = null;
+    }
+
+    /**
+     * Notifies the table that a statement that writes to it was executed, so that its row count is computed again only
+     * when it is requested next. Statements that cannot remove rows (e.g., INSERT) retain the knowledge that the table
+     * is non-empty, which allows {@link #isEmpty} to answer without a round-trip.
+     *
+     * @param canRemoveRows
+     *            whether the statement could have removed rows (e.g., DELETE or TRUNCATE)
+     */
+    public void registerWrite(boolean canRemoveRows) {
+        knownNonEmpty = !canRemoveRows && (knownNonEmpty || rowCount > 0);
+        rowCount = NO_ROW_COUNT_AVAILABLE;
+        sampledRows = null;
+    }
+
+    /**
+     * Returns a random sample of the rows of this table. The sample is obtained with the given sampler when it is
+     * requested first, and is then reused until a write that could affect the table is registered.
+     *
+     * @param <T>
+     *            the table type
+     * @param <V>
+     *            the value type
+     * @param sampler
+     *            obtains a random sample of the rows of the table
+     *
+     * @return the sampled rows, each of which maps the columns to their values
+     *
+     * @throws SQLException
+     *             if the sample cannot be obtained
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractTable<C, ?, ?>, V> List<Map<C, V>> getSampledRows(
+            AbstractTables.RowSampler<T, C, V> sampler) throws SQLException {
+        if (sampledRows == null) {
+            sampledRows = sampler.sampleRows((T) this);
+        }
+        return (List<Map<C, V>>) sampledRows;
+    }
+
+    /**
+     * Discards the sampled rows of this table, for example, since a write to another table could have affected it.
+     */
+    public void invalidateSampledRows() {
+        sampledRows = null;
+    }
+
+    public boolean isEmpty(G globalState) {
+        if (rowCount == NO_ROW_COUNT_AVAILABLE && knownNonEmpty) {
+            return false;
+        }
+        return getNrRows(globalState) == 0;
     }
 
     public abstract long getNrRows(G globalState);
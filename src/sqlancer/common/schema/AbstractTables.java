@@ -1,15 +1,36 @@
 package sqlancer.common.schema;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import sqlancer.IgnoreMeException;
+import sqlancer.Randomly;
+
 public class AbstractTables<T extends AbstractTable<C, ?, ?>, C extends AbstractTableColumn<?, ?>> {
 
     private final List<T> tables;
     private final List<C> columns;
 
+    /**
+     * Obtains a random sample of the rows of a table, each of which maps the columns of the table to their values.
+     *
+     * @param <T>
+     *            the table type
+     * @param <C>
+     *            the column type
+     * @param <V>
+     *            the value type
+     */
+    @FunctionalInterface
+    public interface RowSampler<T, C, V> {
+        List<Map<C, V>> sampleRows(T table) throws SQLException;
+    }
+
     public AbstractTables(List<T> tables) {
         this.tables = tables;
         columns = new ArrayList<>();
@@ -34,4 +55,31 @@ public class AbstractTables<T extends AbstractTable<C, ?, ?>, C extends Abstract
         return getColumns().stream().map(function).collect(Collectors.joining(", "));
     }
 
+    /**
+     * Returns a random row of the cartesian product of the tables, which is composed of a random row of each table.
+     * Rather than sorting the cartesian product, each table is sampled once, and the sample is reused until a write to
+     * the table is registered (see {@link AbstractTable#getSampledRows}).
+     *
+     * @param <V>
+     *            the value type
+     * @param sampler
+     *            obtains a random sample of the rows of a table
+     *
+     * @return the values of the columns of all tables
+     *
+     * @throws SQLException
+     *             if sampling the rows of a table fails
+     */
+    protected <V> Map<C, V> getRandomRowFromSamples(RowSampler<T, C, V> sampler) throws SQLException {
+        Map<C, V> values = new HashMap<>();
+        for (T table : tables) {
+            List<Map<C, V>> rows = table.getSampledRows(sampler);
+            if (rows.isEmpty()) {
+                throw new IgnoreMeException();
+            }
+            values.putAll(Randomly.fromList(rows));
+        }
+        return values;
+    }
+
 }
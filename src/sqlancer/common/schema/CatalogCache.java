@@ -0,0 +1,195 @@
+package sqlancer.common.schema;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import sqlancer.SQLConnection;
+
+/**
+ * Caches the results of queries on the built-in catalog of a DBMS (e.g., the available operators, collations, or
+ * functions). These results depend only on the DBMS, its version, and the installed extensions, but would otherwise be
+ * obtained again for every database that is created, including the databases created by the reducers. Each query is
+ * executed once per process and cache key, and the results can be shared by all threads.
+ *
+ * Optionally, the cache is persisted to a file (see {@link #persistTo}), so that the catalog queries are executed only
+ * once across runs.
+ */
+public final class CatalogCache {
+
+    private static final CatalogCache SHARED = new CatalogCache();
+    private static final int FILE_FORMAT_VERSION = 1;
+
+    // maps the cache key and query (separated by a NUL character) to the rows of the result
+    private final Map<String, List<List<String>>> entries = new ConcurrentHashMap<>();
+    // so that concurrent misses of the same entry execute the query only once
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private volatile Path file;
+
+    /**
+     * Returns the cache that is shared by all threads of this process.
+     *
+     * @return the process-wide cache
+     */
+    public static CatalogCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Computes a cache key. The results of catalog queries can be shared by all databases for which the same key is
+     * computed.
+     *
+     * @param dbms
+     *            the name of the DBMS
+     * @param version
+     *            the version of the DBMS server
+     * @param extensions
+     *            the extensions (and their versions) that are installed in the database
+     *
+     * @return the cache key
+     */
+    public static String getKey(String dbms, String version, Collection<String> extensions) {
+        List<String> sortedExtensions = new ArrayList<>(extensions);
+        Collections.sort(sortedExtensions);
+        return dbms + " " + version + " " + sortedExtensions;
+    }
+
+    /**
+     * Returns the rows of a catalog query, which is executed only if its result has not been cached yet for the key.
+     * Concurrent calls for the same key and query execute the query only once.
+     *
+     * @param key
+     *            the cache key (see {@link #getKey})
+     * @param con
+     *            the connection on which the query is executed on a cache miss
+     * @param query
+     *            the catalog query
+     *
+     * @return the unmodifiable rows, each of which contains the values of the columns as strings
+     *
+     * @throws SQLException
+     *             if executing the query fails
+     */
+    public List<List<String>> getRows(String key, SQLConnection con, String query) throws SQLException {
+        String entryKey = key + "\0" + query;
+        List<List<String>> rows = entries.get(entryKey);
+        if (rows != null) {
+            return rows;
+        }
+        synchronized (locks.computeIfAbsent(entryKey, k -> new Object())) {
+            rows = entries.get(entryKey);
+            if (rows == null) {
+                rows = executeQuery(con, query);
+                entries.put(entryKey, rows);
+                if (file != null) {
+                    save();
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static List<List<String>> executeQuery(SQLConnection con, String query) throws SQLException {
+        List<List<String>> rows = new ArrayList<>();
+        try (Statement s = con.createStatement(); ResultSet rs = s.executeQuery(query)) {
+            int nrColumns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                List<String> row = new ArrayList<>(nrColumns);
+                for (int i = 1; i <= nrColumns; i++) {
+                    row.add(rs.getString(i));
+                }
+                rows.add(Collections.unmodifiableList(row));
+            }
+        }
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Loads the entries that were persisted to a file by a previous run, and persists all entries to the file from now
+     * on. A file that does not exist yet or that was written in an incompatible format is ignored.
+     *
+     * @param path
+     *            the path of the file
+     *
+     * @throws IOException
+     *             if the file exists but cannot be read
+     */
+    public void persistTo(Path path) throws IOException {
+        if (Files.exists(path)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                if (in.readInt() == FILE_FORMAT_VERSION) {
+                    int nrEntries = in.readInt();
+                    for (int i = 0; i < nrEntries; i++) {
+                        String entryKey = in.readUTF();
+                        entries.putIfAbsent(entryKey, readRows(in));
+                    }
+                }
+            }
+        }
+        file = path;
+    }
+
+    private static List<List<String>> readRows(DataInputStream in) throws IOException {
+        int nrRows = in.readInt();
+        List<List<String>> rows = new ArrayList<>(nrRows);
+        for (int i = 0; i < nrRows; i++) {
+            int nrColumns = in.readInt();
+            List<String> row = new ArrayList<>(nrColumns);
+            for (int j = 0; j < nrColumns; j++) {
+                row.add(in.readBoolean() ? in.readUTF() : null);
+            }
+            rows.add(Collections.unmodifiableList(row));
+        }
+        return Collections.unmodifiableList(rows);
+    }
+
+    // writes a temporary file that then replaces the file, so that concurrent runs never read a partially-written file
+    private synchronized void save() {
+        Map<String, List<List<String>>> sortedEntries = new TreeMap<>(entries);
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(FILE_FORMAT_VERSION);
+                out.writeInt(sortedEntries.size());
+                for (Map.Entry<String, List<List<String>>> entry : sortedEntries.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    writeRows(out, entry.getValue());
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void writeRows(DataOutputStream out, List<List<String>> rows) throws IOException {
+        out.writeInt(rows.size());
+        for (List<String> row : rows) {
+            out.writeInt(row.size());
+            for (String value : row) {
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    out.writeUTF(value);
+                }
+            }
+        }
+    }
+
+}
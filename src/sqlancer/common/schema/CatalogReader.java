@@ -0,0 +1,88 @@
+package sqlancer.common.schema;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import sqlancer.SQLConnection;
+
+/**
+ * Reads catalog information (e.g., the columns or indexes) of all tables with a single query, rather than with one
+ * query per table. Reading a schema then requires a constant number of round-trips, independently of the number of
+ * tables, and the tables are assembled from the grouped rows on the client side.
+ */
+public final class CatalogReader {
+
+    private CatalogReader() {
+    }
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        /**
+         * Maps the current row of a catalog query.
+         *
+         * @param rs
+         *            the result set, positioned on the row
+         *
+         * @return the value of the row, or null to skip it
+         *
+         * @throws SQLException
+         *             if reading the row fails
+         */
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Executes a catalog query that returns rows for all tables, and groups the mapped rows by their table.
+     *
+     * @param <T>
+     *            the type of the mapped rows
+     * @param con
+     *            the connection
+     * @param query
+     *            the catalog query, which must return the name of the table of each row
+     * @param tableNameColumn
+     *            the label of the column that contains the table name
+     * @param mapper
+     *            maps each row to a value
+     *
+     * @return the values of each table, in the order of the query
+     *
+     * @throws SQLException
+     *             if executing the query fails
+     */
+    public static <T> Map<String, List<T>> readByTable(SQLConnection con, String query, String tableNameColumn,
+            RowMapper<T> mapper) throws SQLException {
+        Map<String, List<T>> valuesByTable = new HashMap<>();
+        try (Statement s = con.createStatement(); ResultSet rs = s.executeQuery(query)) {
+            while (rs.next()) {
+                T value = mapper.map(rs);
+                if (value != null) {
+                    valuesByTable.computeIfAbsent(rs.getString(tableNameColumn), t -> new ArrayList<>()).add(value);
+                }
+            }
+        }
+        return valuesByTable;
+    }
+
+    /**
+     * Returns the values of a table that were read by {@link #readByTable}.
+     *
+     * @param <T>
+     *            the type of the values
+     * @param valuesByTable
+     *            the values grouped by table
+     * @param tableName
+     *            the name of the table
+     *
+     * @return a modifiable list of the values, which is empty if the query returned no row for the table
+     */
+    public static <T> List<T> getValues(Map<String, List<T>> valuesByTable, String tableName) {
+        return new ArrayList<>(valuesByTable.getOrDefault(tableName, List.of()));
+    }
+
+}
@@ -0,0 +1,110 @@
+package sqlancer.common.visitor;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Caches the string representation of AST nodes that are shared by several queries, such as the FROM clause of the
+ * partitioning queries of TLP, which differ only in their WHERE clause. While a cache is open on a thread, the
+ * {@link ToStringVisitor} and {@link sqlancer.common.ast.newast.NewToStringVisitor} subclasses render each registered
+ * node only once, and subsequently append the cached string. A query is thus assembled from the segments that were
+ * rendered already, and only the fragments that changed since the last query are rendered.
+ *
+ * Nodes are compared by identity, so replacing a clause by another node causes it to be rendered again. Nodes must not
+ * be modified while the cache is open.
+ */
+public final class RenderingCache implements AutoCloseable {
+
+    private static final ThreadLocal<RenderingCache> CURRENT = new ThreadLocal<>();
+
+    // maps each registered node to its string representation, or null if it has not been rendered yet
+    private final Map<Object, String> segments = new IdentityHashMap<>();
+    private final RenderingCache enclosing;
+
+    private RenderingCache(RenderingCache enclosing) {
+        this.enclosing = enclosing;
+    }
+
+    /**
+     * Opens a cache on the current thread, which is used by all visitors that are created until it is closed.
+     *
+     * @return the cache
+     */
+    public static RenderingCache open() {
+        RenderingCache cache = new RenderingCache(CURRENT.get());
+        CURRENT.set(cache);
+        return cache;
+    }
+
+    /**
+     * Returns the cache that is open on the current thread.
+     *
+     * @return the cache, or null if no cache is open
+     */
+    public static RenderingCache getCurrent() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Registers nodes whose string representation is reused by several queries.
+     *
+     * @param nodes
+     *            the nodes, which may be null
+     *
+     * @return this cache
+     */
+    public RenderingCache register(Collection<?> nodes) {
+        if (nodes != null) {
+            for (Object node : nodes) {
+                register(node);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Registers a node whose string representation is reused by several queries.
+     *
+     * @param node
+     *            the node, which may be null
+     *
+     * @return this cache
+     */
+    public RenderingCache register(Object node) {
+        if (node != null) {
+            segments.putIfAbsent(node, null);
+        }
+        return this;
+    }
+
+    public boolean isRegistered(Object node) {
+        return segments.containsKey(node);
+    }
+
+    /**
+     * Returns the string representation of a registered node.
+     *
+     * @param node
+     *            the node
+     *
+     * @return the string representation, or null if the node has not been rendered yet
+     */
+    public String getRendering(Object node) {
+        return segments.get(node);
+    }
+
+    public void setRendering(Object node, String rendering) {
+        segments.put(node, rendering);
+    }
+
+    @Override
+    public void close() {
+        if (enclosing == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(enclosing);
+        }
+    }
+
+}
@@ -7,6 +7,7 @@ import sqlancer.common.visitor.UnaryOperation.OperatorKind;
 public abstract class ToStringVisitor<T> extends NodeVisitor<T> {
 
     protected final StringBuilder sb = new StringBuilder();
+    private final RenderingCache renderingCache = RenderingCache.getCurrent();
 
     public void visit(BinaryOperation<T> op) {
         sb.append('(');
@@ -44,9 +45,24 @@ public abstract class ToStringVisitor<T> extends NodeVisitor<T> {
         }
     }
 
-    @SuppressWarnings("unchecked")
     public void visit(T expr) {
         assert expr != null;
+        if (renderingCache != null && renderingCache.isRegistered(expr)) {
+            String rendering = renderingCache.getRendering(expr);
+            if (rendering == null) {
+                int start = sb.length();
+                dispatch(expr);
+                renderingCache.setRendering(expr, sb.substring(start));
+            } else {
+                sb.append(rendering);
+            }
+        } else {
+            dispatch(expr);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch(T expr) {
         if (expr instanceof BinaryOperation<?>) {
             visit((BinaryOperation<T>) expr);
         } else if (expr instanceof UnaryOperation<?>) {
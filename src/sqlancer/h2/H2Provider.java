@@ -1,8 +1,14 @@
 package sqlancer.h2;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.google.auto.service.AutoService;
 
@@ -21,6 +27,9 @@ import sqlancer.h2.H2Provider.H2GlobalState;
 @AutoService(DatabaseProvider.class)
 public class H2Provider extends SQLProviderAdapter<H2GlobalState, H2Options> {
 
+    // the files of the snapshots taken by this provider, by database and snapshot name
+    private final Map<String, Path> snapshotFiles = new HashMap<>();
+
     public H2Provider() {
         super(H2GlobalState.class, H2Options.class);
     }
@@ -107,6 +116,64 @@ public class H2Provider extends SQLProviderAdapter<H2GlobalState, H2Options> {
         return new SQLConnection(connection);
     }
 
+    @Override
+    public boolean supportsSnapshots() {
+        return true;
+    }
+
+    @Override
+    public boolean takeSnapshot(H2GlobalState globalState, String snapshotName) throws SQLException, IOException {
+        // the script does not contain the options of the session
+        if (globalState.getState().getStatements().stream()
+                .anyMatch(q -> q.getQueryString().trim().regionMatches(true, 0, "SET ", 0, "SET ".length()))) {
+            return false;
+        }
+        Path snapshotFile = snapshotFiles.get(getSnapshotKey(globalState, snapshotName));
+        if (snapshotFile == null) {
+            // a unique file, so that the snapshots of other SQLancer processes are not overwritten
+            snapshotFile = Files.createTempFile("sqlancer-" + globalState.getDatabaseName() + "-" + snapshotName,
+                    ".sql");
+            snapshotFiles.put(getSnapshotKey(globalState, snapshotName), snapshotFile);
+        }
+        try (Statement s = globalState.getConnection().createStatement()) {
+            s.execute("SCRIPT TO '" + getSnapshotPath(snapshotFile) + "'");
+        }
+        return true;
+    }
+
+    @Override
+    public SQLConnection restoreSnapshot(H2GlobalState globalState, String snapshotName) throws SQLException {
+        Path snapshotFile = snapshotFiles.get(getSnapshotKey(globalState, snapshotName));
+        if (snapshotFile == null) {
+            throw new AssertionError(snapshotName);
+        }
+        SQLConnection con = createDatabase(globalState);
+        try (Statement s = con.createStatement()) {
+            s.execute("RUNSCRIPT FROM '" + getSnapshotPath(snapshotFile) + "'");
+        } catch (SQLException e) {
+            con.close();
+            throw e;
+        }
+        return con;
+    }
+
+    @Override
+    public void deleteSnapshot(H2GlobalState globalState, String snapshotName) throws IOException {
+        Path snapshotFile = snapshotFiles.remove(getSnapshotKey(globalState, snapshotName));
+        if (snapshotFile != null) {
+            Files.deleteIfExists(snapshotFile);
+        }
+    }
+
+    private static String getSnapshotKey(H2GlobalState globalState, String snapshotName) {
+        return globalState.getDatabaseName() + "-" + snapshotName;
+    }
+
+    // the path of the snapshot file as the content of a string literal
+    private static String getSnapshotPath(Path snapshotFile) {
+        return snapshotFile.toAbsolutePath().toString().replace("'", "''");
+    }
+
     @Override
     public String getDBMSName() {
         return "h2";
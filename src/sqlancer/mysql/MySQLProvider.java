@@ -210,7 +210,7 @@ public class MySQLProvider extends SQLProviderAdapter<MySQLGlobalState, MySQLOpt
     @Override
     public boolean addRowsToAllTables(MySQLGlobalState globalState) throws Exception {
         List<MySQLTable> tablesNoRow = globalState.getSchema().getDatabaseTables().stream()
-                .filter(t -> t.getNrRows(globalState) == 0).collect(Collectors.toList());
+                .filter(t -> t.isEmpty(globalState)).collect(Collectors.toList());
         for (MySQLTable table : tablesNoRow) {
             SQLQueryAdapter queryAddRows = MySQLInsertGenerator.insertRow(globalState, table);
             globalState.executeStatement(queryAddRows);
@@ -17,6 +17,7 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.CatalogReader;
 import sqlancer.common.schema.TableIndex;
 import sqlancer.mysql.MySQLSchema.MySQLTable;
 import sqlancer.mysql.MySQLSchema.MySQLTable.MySQLEngine;
@@ -88,46 +89,47 @@ public class MySQLSchema extends AbstractSchema<MySQLGlobalState, MySQLTable> {
             super(tables);
         }
 
-        public MySQLRowValue getRandomRowValue(SQLConnection con) throws SQLException {
-            String randomRow = String.format("SELECT %s FROM %s ORDER BY RAND() LIMIT 1", columnNamesAsString(
+        public MySQLRowValue getRandomRowValue(SQLConnection con, int sampleSize) throws SQLException {
+            return new MySQLRowValue(this, getRandomRowFromSamples(table -> sampleRows(con, table, sampleSize)));
+        }
+
+        private static List<Map<MySQLColumn, MySQLConstant>> sampleRows(SQLConnection con, MySQLTable table,
+                int sampleSize) throws SQLException {
+            MySQLTables tables = new MySQLTables(List.of(table));
+            List<MySQLColumn> columns = tables.getColumns();
+            String randomRows = String.format("SELECT %s FROM %s ORDER BY RAND() LIMIT %d", tables.columnNamesAsString(
                     c -> c.getTable().getName() + "." + c.getName() + " AS " + c.getTable().getName() + c.getName()),
-                    // columnNamesAsString(c -> "typeof(" + c.getTable().getName() + "." +
-                    // c.getName() + ")")
-                    tableNamesAsString());
-            Map<MySQLColumn, MySQLConstant> values = new HashMap<>();
+                    tables.tableNamesAsString(), sampleSize);
+            List<Map<MySQLColumn, MySQLConstant>> rows = new ArrayList<>();
             try (Statement s = con.createStatement()) {
-                ResultSet randomRowValues = s.executeQuery(randomRow);
-                if (!randomRowValues.next()) {
-                    throw new AssertionError("could not find random row! " + randomRow + "\n");
-                }
-                for (int i = 0; i < getColumns().size(); i++) {
-                    MySQLColumn column = getColumns().get(i);
-                    Object value;
-                    int columnIndex = randomRowValues.findColumn(column.getTable().getName() + column.getName());
-                    assert columnIndex == i + 1;
-                    MySQLConstant constant;
-                    if (randomRowValues.getString(columnIndex) == null) {
-                        constant = MySQLConstant.createNullConstant();
-                    } else {
-                        switch (column.getType()) {
-                        case INT:
-                            value = randomRowValues.getLong(columnIndex);
-                            constant = MySQLConstant.createIntConstant((long) value);
-                            break;
-                        case VARCHAR:
-                            value = randomRowValues.getString(columnIndex);
-                            constant = MySQLConstant.createStringConstant((String) value);
-                            break;
-                        default:
-                            throw new AssertionError(column.getType());
+                ResultSet randomRowValues = s.executeQuery(randomRows);
+                while (randomRowValues.next()) {
+                    Map<MySQLColumn, MySQLConstant> values = new HashMap<>();
+                    for (int i = 0; i < columns.size(); i++) {
+                        MySQLColumn column = columns.get(i);
+                        int columnIndex = randomRowValues.findColumn(column.getTable().getName() + column.getName());
+                        assert columnIndex == i + 1;
+                        MySQLConstant constant;
+                        if (randomRowValues.getString(columnIndex) == null) {
+                            constant = MySQLConstant.createNullConstant();
+                        } else {
+                            switch (column.getType()) {
+                            case INT:
+                                constant = MySQLConstant.createIntConstant(randomRowValues.getLong(columnIndex));
+                                break;
+                            case VARCHAR:
+                                constant = MySQLConstant.createStringConstant(randomRowValues.getString(columnIndex));
+                                break;
+                            default:
+                                throw new AssertionError(column.getType());
+                            }
                         }
+                        values.put(column, constant);
                     }
-                    values.put(column, constant);
+                    rows.add(values);
                 }
-                assert !randomRowValues.next();
-                return new MySQLRowValue(this, values);
             }
-
+            return rows;
         }
 
     }
@@ -227,6 +229,15 @@ public class MySQLSchema extends AbstractSchema<MySQLGlobalState, MySQLTable> {
         for (int i = 0; i < NR_SCHEMA_READ_TRIES; i++) {
             try {
                 List<MySQLTable> databaseTables = new ArrayList<>();
+                // the columns and indexes of all tables are read at once rather than per table
+                Map<String, List<MySQLColumn>> columnsByTable = CatalogReader.readByTable(con,
+                        "select * from information_schema.columns where table_schema = '" + databaseName + "'",
+                        "TABLE_NAME",
+                        rs -> new MySQLColumn(rs.getString("COLUMN_NAME"), getColumnType(rs.getString("DATA_TYPE")),
+                                rs.getString("COLUMN_KEY").equals("PRI"), rs.getInt("NUMERIC_PRECISION")));
+                Map<String, List<MySQLIndex>> indexesByTable = CatalogReader.readByTable(con, String.format(
+                        "SELECT TABLE_NAME, INDEX_NAME FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = '%s';",
+                        databaseName), "TABLE_NAME", rs -> MySQLIndex.create(rs.getString("INDEX_NAME")));
                 try (Statement s = con.createStatement()) {
                     try (ResultSet rs = s.executeQuery(
                             "select TABLE_NAME, ENGINE from information_schema.TABLES where table_schema = '"
@@ -235,8 +246,8 @@ public class MySQLSchema extends AbstractSchema<MySQLGlobalState, MySQLTable> {
                             String tableName = rs.getString("TABLE_NAME");
                             String tableEngineStr = rs.getString("ENGINE");
                             MySQLEngine engine = MySQLEngine.get(tableEngineStr);
-                            List<MySQLColumn> databaseColumns = getTableColumns(con, tableName, databaseName);
-                            List<MySQLIndex> indexes = getIndexes(con, tableName, databaseName);
+                            List<MySQLColumn> databaseColumns = CatalogReader.getValues(columnsByTable, tableName);
+                            List<MySQLIndex> indexes = CatalogReader.getValues(indexesByTable, tableName);
                             MySQLTable t = new MySQLTable(tableName, databaseColumns, indexes, engine);
                             for (MySQLColumn c : databaseColumns) {
                                 c.setTable(t);
@@ -253,41 +264,6 @@ public class MySQLSchema extends AbstractSchema<MySQLGlobalState, MySQLTable> {
         throw new AssertionError(ex);
     }
 
-    private static List<MySQLIndex> getIndexes(SQLConnection con, String tableName, String databaseName)
-            throws SQLException {
-        List<MySQLIndex> indexes = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery(String.format(
-                    "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = '%s' AND TABLE_NAME='%s';",
-                    databaseName, tableName))) {
-                while (rs.next()) {
-                    String indexName = rs.getString("INDEX_NAME");
-                    indexes.add(MySQLIndex.create(indexName));
-                }
-            }
-        }
-        return indexes;
-    }
-
-    private static List<MySQLColumn> getTableColumns(SQLConnection con, String tableName, String databaseName)
-            throws SQLException {
-        List<MySQLColumn> columns = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery("select * from information_schema.columns where table_schema = '"
-                    + databaseName + "' AND TABLE_NAME='" + tableName + "'")) {
-                while (rs.next()) {
-                    String columnName = rs.getString("COLUMN_NAME");
-                    String dataType = rs.getString("DATA_TYPE");
-                    int precision = rs.getInt("NUMERIC_PRECISION");
-                    boolean isPrimaryKey = rs.getString("COLUMN_KEY").equals("PRI");
-                    MySQLColumn c = new MySQLColumn(columnName, getColumnType(dataType), isPrimaryKey, precision);
-                    columns.add(c);
-                }
-            }
-        }
-        return columns;
-    }
-
     public MySQLSchema(List<MySQLTable> databaseTables) {
         super(databaseTables);
     }
@@ -9,6 +9,7 @@ import sqlancer.Randomly;
 import sqlancer.common.oracle.TestOracle;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.common.visitor.RenderingCache;
 import sqlancer.mysql.MySQLErrors;
 import sqlancer.mysql.MySQLGlobalState;
 import sqlancer.mysql.MySQLSchema.MySQLTables;
@@ -66,16 +67,26 @@ public class MySQLDQPOracle implements TestOracle<MySQLGlobalState> {
                 .collect(Collectors.toList());
         select.setFromList(tableList);
 
+        // Render the queries, which differ only in their hint, so that the other clauses are rendered only once
+        String originalQueryString;
+        List<MySQLText> hintList = MySQLHintGenerator.generateAllHints(select, tables.getTables());
+        List<String> hintQueryStrings = new ArrayList<>();
+        try (RenderingCache cache = RenderingCache.open()) {
+            cache.register(fetchColumns).register(select.getWhereClause()).register(select.getHavingClause())
+                    .register(joinExpressions).register(tableList);
+            originalQueryString = MySQLVisitor.asString(select);
+            for (MySQLText hint : hintList) {
+                select.setHint(hint);
+                hintQueryStrings.add(MySQLVisitor.asString(select));
+            }
+        }
+
         // Get the result of the first query
-        String originalQueryString = MySQLVisitor.asString(select);
         List<String> originalResult = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors,
                 state);
 
         // Check hints
-        List<MySQLText> hintList = MySQLHintGenerator.generateAllHints(select, tables.getTables());
-        for (MySQLText hint : hintList) {
-            select.setHint(hint);
-            String queryString = MySQLVisitor.asString(select);
+        for (String queryString : hintQueryStrings) {
             List<String> result = ComparatorHelper.getResultSetFirstColumnAsString(queryString, errors, state);
             ComparatorHelper.assumeResultSetsAreEqual(originalResult, result, originalQueryString, List.of(queryString),
                     state);
@@ -9,10 +9,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import sqlancer.Randomly;
 import sqlancer.SQLConnection;
 import sqlancer.SQLGlobalState;
+import sqlancer.common.schema.CatalogCache;
 
 public class PostgresGlobalState extends SQLGlobalState<PostgresOptions, PostgresSchema> {
 
@@ -24,6 +26,7 @@ public class PostgresGlobalState extends SQLGlobalState<PostgresOptions, Postgre
     private List<String> collates = Collections.emptyList();
     private List<String> opClasses = Collections.emptyList();
     private List<String> tableAccessMethods = Collections.emptyList();
+    private String catalogCacheKey;
     // store and allow filtering by function volatility classifications
     private final Map<String, Character> functionsAndTypes = new HashMap<>();
     private List<Character> allowedFunctionTypes = Arrays.asList(IMMUTABLE, STABLE, VOLATILE);
@@ -32,65 +35,51 @@ public class PostgresGlobalState extends SQLGlobalState<PostgresOptions, Postgre
     public void setConnection(SQLConnection con) {
         super.setConnection(con);
         try {
-            this.opClasses = getOpclasses(getConnection());
-            this.operators = getOperators(getConnection());
-            this.collates = getCollnames(getConnection());
-            this.tableAccessMethods = getTableAccessMethods(getConnection());
+            this.catalogCacheKey = getCatalogCacheKey(getConnection());
+            this.opClasses = getCatalogValues("select opcname FROM pg_opclass;");
+            this.operators = getCatalogValues("SELECT oprname FROM pg_operator;");
+            this.collates = getCatalogValues(
+                    "SELECT collname FROM pg_collation WHERE collname LIKE '%utf8' or collname = 'C';");
+            /*
+             * pg_am includes both index and table access methods so we need to filter with amtype = 't'
+             */
+            this.tableAccessMethods = getCatalogValues("SELECT amname FROM pg_am WHERE amtype = 't';");
         } catch (SQLException e) {
             throw new AssertionError(e);
         }
     }
 
-    private List<String> getCollnames(SQLConnection con) throws SQLException {
-        List<String> collNames = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s
-                    .executeQuery("SELECT collname FROM pg_collation WHERE collname LIKE '%utf8' or collname = 'C';")) {
-                while (rs.next()) {
-                    collNames.add(rs.getString(1));
-                }
-            }
-        }
-        return collNames;
-    }
-
-    private List<String> getOpclasses(SQLConnection con) throws SQLException {
-        List<String> opClasses = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery("select opcname FROM pg_opclass;")) {
-                while (rs.next()) {
-                    opClasses.add(rs.getString(1));
-                }
-            }
-        }
-        return opClasses;
-    }
-
-    private List<String> getOperators(SQLConnection con) throws SQLException {
-        List<String> operators = new ArrayList<>();
+    // the built-in catalog of a newly-created database only depends on the server version and the extensions
+    private static String getCatalogCacheKey(SQLConnection con) throws SQLException {
+        List<String> extensions = new ArrayList<>();
         try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery("SELECT oprname FROM pg_operator;")) {
+            try (ResultSet rs = s.executeQuery("SELECT extname, extversion FROM pg_extension;")) {
                 while (rs.next()) {
-                    operators.add(rs.getString(1));
+                    extensions.add(rs.getString(1) + " " + rs.getString(2));
                 }
             }
         }
-        return operators;
-    }
-
-    private List<String> getTableAccessMethods(SQLConnection con) throws SQLException {
-        List<String> tableAccessMethods = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            /*
-             * pg_am includes both index and table access methods so we need to filter with amtype = 't'
-             */
-            try (ResultSet rs = s.executeQuery("SELECT amname FROM pg_am WHERE amtype = 't';")) {
-                while (rs.next()) {
-                    tableAccessMethods.add(rs.getString(1));
-                }
-            }
-        }
-        return tableAccessMethods;
+        return CatalogCache.getKey("postgres", con.getDatabaseVersion(), extensions);
+    }
+
+    private List<String> getCatalogValues(String query) throws SQLException {
+        return getCatalogRows(query).stream().map(row -> row.get(0)).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the rows of a query on the built-in catalog, which is executed only once per process for each server
+     * version and set of installed extensions (see {@link CatalogCache}).
+     *
+     * @param query
+     *            the catalog query
+     *
+     * @return the rows of the query
+     *
+     * @throws SQLException
+     *             if executing the query fails
+     */
+    public List<List<String>> getCatalogRows(String query) throws SQLException {
+        return CatalogCache.getShared().getRows(catalogCacheKey, getConnection(), query);
     }
 
     public List<String> getOperators() {
@@ -296,12 +296,8 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
     }
 
     protected void readFunctions(PostgresGlobalState globalState) throws SQLException {
-        SQLQueryAdapter query = new SQLQueryAdapter("SELECT proname, provolatile FROM pg_proc;");
-        SQLancerResultSet rs = query.executeAndGet(globalState);
-        while (rs.next()) {
-            String functionName = rs.getString(1);
-            Character functionType = rs.getString(2).charAt(0);
-            globalState.addFunctionAndType(functionName, functionType);
+        for (List<String> row : globalState.getCatalogRows("SELECT proname, provolatile FROM pg_proc;")) {
+            globalState.addFunctionAndType(row.get(0), row.get(1).charAt(0));
         }
     }
 
@@ -394,7 +390,7 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
     @Override
     protected boolean addRowsToAllTables(PostgresGlobalState globalState) throws Exception {
         List<PostgresSchema.PostgresTable> tablesNoRow = globalState.getSchema().getDatabaseTables().stream()
-                .filter(t -> t.getNrRows(globalState) == 0).collect(Collectors.toList());
+                .filter(t -> t.isEmpty(globalState)).collect(Collectors.toList());
         for (PostgresSchema.PostgresTable table : tablesNoRow) {
             SQLQueryAdapter queryAddRows = PostgresInsertGenerator.insertRows(globalState, table);
             globalState.executeStatement(queryAddRows);
@@ -21,6 +21,7 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.CatalogReader;
 import sqlancer.common.schema.TableIndex;
 import sqlancer.postgres.PostgresSchema.PostgresTable;
 import sqlancer.postgres.PostgresSchema.PostgresTable.TableType;
@@ -66,48 +67,54 @@ public class PostgresSchema extends AbstractSchema<PostgresGlobalState, Postgres
             super(tables);
         }
 
-        public PostgresRowValue getRandomRowValue(SQLConnection con) throws SQLException {
-            String randomRow = String.format("SELECT %s FROM %s ORDER BY RANDOM() LIMIT 1", columnNamesAsString(
-                    c -> c.getTable().getName() + "." + c.getName() + " AS " + c.getTable().getName() + c.getName()),
-                    // columnNamesAsString(c -> "typeof(" + c.getTable().getName() + "." +
-                    // c.getName() + ")")
-                    tableNamesAsString());
-            Map<PostgresColumn, PostgresConstant> values = new HashMap<>();
+        public PostgresRowValue getRandomRowValue(SQLConnection con, int sampleSize) throws SQLException {
+            return new PostgresRowValue(this, getRandomRowFromSamples(table -> sampleRows(con, table, sampleSize)));
+        }
+
+        private static List<Map<PostgresColumn, PostgresConstant>> sampleRows(SQLConnection con, PostgresTable table,
+                int sampleSize) throws SQLException {
+            PostgresTables tables = new PostgresTables(Arrays.asList(table));
+            List<PostgresColumn> columns = tables.getColumns();
+            String randomRows = String.format("SELECT %s FROM %s ORDER BY RANDOM() LIMIT %d",
+                    tables.columnNamesAsString(c -> c.getTable().getName() + "." + c.getName() + " AS "
+                            + c.getTable().getName() + c.getName()),
+                    tables.tableNamesAsString(), sampleSize);
+            List<Map<PostgresColumn, PostgresConstant>> rows = new ArrayList<>();
             try (Statement s = con.createStatement()) {
-                ResultSet randomRowValues = s.executeQuery(randomRow);
-                if (!randomRowValues.next()) {
-                    throw new AssertionError("could not find random row! " + randomRow + "\n");
-                }
-                for (int i = 0; i < getColumns().size(); i++) {
-                    PostgresColumn column = getColumns().get(i);
-                    int columnIndex = randomRowValues.findColumn(column.getTable().getName() + column.getName());
-                    assert columnIndex == i + 1;
-                    PostgresConstant constant;
-                    if (randomRowValues.getString(columnIndex) == null) {
-                        constant = PostgresConstant.createNullConstant();
-                    } else {
-                        switch (column.getType()) {
-                        case INT:
-                            constant = PostgresConstant.createIntConstant(randomRowValues.getLong(columnIndex));
-                            break;
-                        case BOOLEAN:
-                            constant = PostgresConstant.createBooleanConstant(randomRowValues.getBoolean(columnIndex));
-                            break;
-                        case TEXT:
-                            constant = PostgresConstant.createTextConstant(randomRowValues.getString(columnIndex));
-                            break;
-                        default:
-                            throw new IgnoreMeException();
+                ResultSet randomRowValues = s.executeQuery(randomRows);
+                while (randomRowValues.next()) {
+                    Map<PostgresColumn, PostgresConstant> values = new HashMap<>();
+                    for (int i = 0; i < columns.size(); i++) {
+                        PostgresColumn column = columns.get(i);
+                        int columnIndex = randomRowValues.findColumn(column.getTable().getName() + column.getName());
+                        assert columnIndex == i + 1;
+                        PostgresConstant constant;
+                        if (randomRowValues.getString(columnIndex) == null) {
+                            constant = PostgresConstant.createNullConstant();
+                        } else {
+                            switch (column.getType()) {
+                            case INT:
+                                constant = PostgresConstant.createIntConstant(randomRowValues.getLong(columnIndex));
+                                break;
+                            case BOOLEAN:
+                                constant = PostgresConstant
+                                        .createBooleanConstant(randomRowValues.getBoolean(columnIndex));
+                                break;
+                            case TEXT:
+                                constant = PostgresConstant.createTextConstant(randomRowValues.getString(columnIndex));
+                                break;
+                            default:
+                                throw new IgnoreMeException();
+                            }
                         }
+                        values.put(column, constant);
                     }
-                    values.put(column, constant);
+                    rows.add(values);
                 }
-                assert !randomRowValues.next();
-                return new PostgresRowValue(this, values);
             } catch (PSQLException e) {
                 throw new IgnoreMeException();
             }
-
+            return rows;
         }
 
     }
@@ -223,6 +230,16 @@ public class PostgresSchema extends AbstractSchema<PostgresGlobalState, Postgres
     public static PostgresSchema fromConnection(SQLConnection con, String databaseName) throws SQLException {
         try {
             List<PostgresTable> databaseTables = new ArrayList<>();
+            // the columns, indexes, and statistics of all tables are read at once rather than per table
+            Map<String, List<PostgresColumn>> columnsByTable = CatalogReader.readByTable(con,
+                    "SELECT table_name, column_name, data_type FROM information_schema.columns WHERE table_schema='public' OR table_schema LIKE 'pg_temp_%' ORDER BY column_name;",
+                    "table_name",
+                    rs -> new PostgresColumn(rs.getString("column_name"), getColumnType(rs.getString("data_type"))));
+            Map<String, List<PostgresIndex>> indexesByTable = CatalogReader.readByTable(con,
+                    "SELECT tablename, indexname FROM pg_indexes WHERE schemaname='public' OR schemaname LIKE 'pg_temp_%' ORDER BY indexname;",
+                    "tablename", rs -> DBMSCommon.matchesIndexName(rs.getString("indexname"))
+                            ? PostgresIndex.create(rs.getString("indexname")) : null);
+            List<PostgresStatisticsObject> statistics = getStatistics(con);
             try (Statement s = con.createStatement()) {
                 try (ResultSet rs = s.executeQuery(
                         "SELECT table_name, table_schema, table_type, is_insertable_into FROM information_schema.tables WHERE table_schema='public' OR table_schema LIKE 'pg_temp_%' ORDER BY table_name;")) {
@@ -236,11 +253,10 @@ public class PostgresSchema extends AbstractSchema<PostgresGlobalState, Postgres
                                                                     // tableTypeStr.contains("LOCAL TEMPORARY") &&
                                                                     // !isInsertable;
                         PostgresTable.TableType tableType = getTableType(tableTypeSchema);
-                        List<PostgresColumn> databaseColumns = getTableColumns(con, tableName);
-                        List<PostgresIndex> indexes = getIndexes(con, tableName);
-                        List<PostgresStatisticsObject> statistics = getStatistics(con);
-                        PostgresTable t = new PostgresTable(tableName, databaseColumns, indexes, tableType, statistics,
-                                isView, isInsertable);
+                        List<PostgresColumn> databaseColumns = CatalogReader.getValues(columnsByTable, tableName);
+                        List<PostgresIndex> indexes = CatalogReader.getValues(indexesByTable, tableName);
+                        PostgresTable t = new PostgresTable(tableName, databaseColumns, indexes, tableType,
+                                new ArrayList<>(statistics), isView, isInsertable);
                         for (PostgresColumn c : databaseColumns) {
                             c.setTable(t);
                         }
@@ -278,39 +294,6 @@ public class PostgresSchema extends AbstractSchema<PostgresGlobalState, Postgres
         return tableType;
     }
 
-    protected static List<PostgresIndex> getIndexes(SQLConnection con, String tableName) throws SQLException {
-        List<PostgresIndex> indexes = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery(String
-                    .format("SELECT indexname FROM pg_indexes WHERE tablename='%s' ORDER BY indexname;", tableName))) {
-                while (rs.next()) {
-                    String indexName = rs.getString("indexname");
-                    if (DBMSCommon.matchesIndexName(indexName)) {
-                        indexes.add(PostgresIndex.create(indexName));
-                    }
-                }
-            }
-        }
-        return indexes;
-    }
-
-    protected static List<PostgresColumn> getTableColumns(SQLConnection con, String tableName) throws SQLException {
-        List<PostgresColumn> columns = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s
-                    .executeQuery("select column_name, data_type from INFORMATION_SCHEMA.COLUMNS where table_name = '"
-                            + tableName + "' ORDER BY column_name")) {
-                while (rs.next()) {
-                    String columnName = rs.getString("column_name");
-                    String dataType = rs.getString("data_type");
-                    PostgresColumn c = new PostgresColumn(columnName, getColumnType(dataType));
-                    columns.add(c);
-                }
-            }
-        }
-        return columns;
-    }
-
     public PostgresSchema(List<PostgresTable> databaseTables, String databaseName) {
         super(databaseTables);
         this.databaseName = databaseName;
@@ -8,10 +8,20 @@ import sqlancer.common.query.ExpectedErrors;
 
 public final class SQLite3Errors {
 
+    // the lists are created once, since the errors are added to the expected errors of most statements; they are
+    // immutable, so that ExpectedErrors can share them instead of copying them
+    private static final List<String> DELETE_ERRORS = List.copyOf(createDeleteErrors());
+    private static final List<String> EXPECTED_EXPRESSION_ERRORS = List.copyOf(createExpectedExpressionErrors());
+    private static final List<String> MATCH_QUERY_ERRORS = List.copyOf(createMatchQueryErrors());
+    private static final List<String> TABLE_MANIPULATION_ERRORS = List.copyOf(createTableManipulationErrors());
+    private static final List<String> QUERY_ERRORS = List.copyOf(createQueryErrors());
+    private static final List<String> INSERT_NOW_ERRORS = List.copyOf(createInsertNowErrors());
+    private static final List<String> INSERT_UPDATE_ERRORS = List.copyOf(createInsertUpdateErrors());
+
     private SQLite3Errors() {
     }
 
-    public static List<String> getDeleteErrors() {
+    private static List<String> createDeleteErrors() {
         ArrayList<String> errors = new ArrayList<>();
 
         // DELETE trigger for a view/table to which colomns were added or deleted
@@ -22,11 +32,15 @@ public final class SQLite3Errors {
         return errors;
     }
 
+    public static List<String> getDeleteErrors() {
+        return DELETE_ERRORS;
+    }
+
     public static void addDeleteErrors(ExpectedErrors errors) {
-        errors.addAll(getDeleteErrors());
+        errors.addAll(DELETE_ERRORS);
     }
 
-    public static List<String> getExpectedExpressionErrors() {
+    private static List<String> createExpectedExpressionErrors() {
         ArrayList<String> errors = new ArrayList<>();
 
         errors.add("[SQLITE_BUSY]  The database file is locked");
@@ -83,11 +97,15 @@ public final class SQLite3Errors {
         return errors;
     }
 
+    public static List<String> getExpectedExpressionErrors() {
+        return EXPECTED_EXPRESSION_ERRORS;
+    }
+
     public static void addExpectedExpressionErrors(ExpectedErrors errors) {
-        errors.addAll(getExpectedExpressionErrors());
+        errors.addAll(EXPECTED_EXPRESSION_ERRORS);
     }
 
-    public static List<String> getMatchQueryErrors() {
+    private static List<String> createMatchQueryErrors() {
         ArrayList<String> errors = new ArrayList<>();
 
         errors.add("unable to use function MATCH in the requested context");
@@ -102,11 +120,15 @@ public final class SQLite3Errors {
         return errors;
     }
 
+    public static List<String> getMatchQueryErrors() {
+        return MATCH_QUERY_ERRORS;
+    }
+
     public static void addMatchQueryErrors(ExpectedErrors errors) {
-        errors.addAll(getMatchQueryErrors());
+        errors.addAll(MATCH_QUERY_ERRORS);
     }
 
-    public static List<String> getTableManipulationErrors() {
+    private static List<String> createTableManipulationErrors() {
         ArrayList<String> errors = new ArrayList<>();
 
         errors.add("unsupported frame specification");
@@ -117,11 +139,15 @@ public final class SQLite3Errors {
         return errors;
     }
 
+    public static List<String> getTableManipulationErrors() {
+        return TABLE_MANIPULATION_ERRORS;
+    }
+
     public static void addTableManipulationErrors(ExpectedErrors errors) {
-        errors.addAll(getTableManipulationErrors());
+        errors.addAll(TABLE_MANIPULATION_ERRORS);
     }
 
-    public static List<String> getQueryErrors() {
+    private static List<String> createQueryErrors() {
         ArrayList<String> errors = new ArrayList<>();
 
         errors.add("ON clause references tables to its right");
@@ -129,11 +155,15 @@ public final class SQLite3Errors {
         return errors;
     }
 
+    public static List<String> getQueryErrors() {
+        return QUERY_ERRORS;
+    }
+
     public static void addQueryErrors(ExpectedErrors errors) {
-        errors.addAll(getQueryErrors());
+        errors.addAll(QUERY_ERRORS);
     }
 
-    public static List<String> getInsertNowErrors() {
+    private static List<String> createInsertNowErrors() {
         ArrayList<String> errors = new ArrayList<>();
 
         errors.add("non-deterministic use of strftime()");
@@ -145,11 +175,15 @@ public final class SQLite3Errors {
         return errors;
     }
 
+    public static List<String> getInsertNowErrors() {
+        return INSERT_NOW_ERRORS;
+    }
+
     public static void addInsertNowErrors(ExpectedErrors errors) {
-        errors.addAll(getInsertNowErrors());
+        errors.addAll(INSERT_NOW_ERRORS);
     }
 
-    public static List<String> getInsertUpdateErrors() {
+    private static List<String> createInsertUpdateErrors() {
         ArrayList<String> errors = new ArrayList<>();
 
         errors.add("String or BLOB exceeds size limit");
@@ -170,8 +204,12 @@ public final class SQLite3Errors {
         return errors;
     }
 
+    public static List<String> getInsertUpdateErrors() {
+        return INSERT_UPDATE_ERRORS;
+    }
+
     public static void addInsertUpdateErrors(ExpectedErrors errors) {
-        errors.addAll(getInsertUpdateErrors());
+        errors.addAll(INSERT_UPDATE_ERRORS);
     }
 
 }
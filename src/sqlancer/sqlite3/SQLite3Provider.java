@@ -2,8 +2,11 @@ package sqlancer.sqlite3;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -297,6 +300,51 @@ public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLi
         return new SQLConnection(DriverManager.getConnection(url));
     }
 
+    @Override
+    public boolean supportsSnapshots() {
+        return true;
+    }
+
+    @Override
+    public boolean takeSnapshot(SQLite3GlobalState globalState, String snapshotName) throws SQLException {
+        // the backup contains neither the PRAGMA settings of the connection nor its temporary tables and triggers
+        if (globalState.getState().getStatements().stream()
+                .anyMatch(q -> q.getQueryString().trim().regionMatches(true, 0, "PRAGMA", 0, "PRAGMA".length()))) {
+            return false;
+        }
+        try (Statement s = globalState.getConnection().createStatement()) {
+            try (ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM sqlite_temp_master")) {
+                if (rs.next() && rs.getInt(1) != 0) {
+                    return false;
+                }
+            }
+            // uses the online backup API, which is exposed by the driver as a pseudo-statement
+            s.executeUpdate("backup to \"" + getSnapshotFile(globalState, snapshotName).getAbsolutePath() + "\"");
+        }
+        return true;
+    }
+
+    @Override
+    public SQLConnection restoreSnapshot(SQLite3GlobalState globalState, String snapshotName) throws SQLException {
+        SQLConnection con = createDatabase(globalState);
+        try (Statement s = con.createStatement()) {
+            s.executeUpdate("restore from \"" + getSnapshotFile(globalState, snapshotName).getAbsolutePath() + "\"");
+        } catch (SQLException e) {
+            con.close();
+            throw e;
+        }
+        return con;
+    }
+
+    @Override
+    public void deleteSnapshot(SQLite3GlobalState globalState, String snapshotName) throws IOException {
+        Files.deleteIfExists(getSnapshotFile(globalState, snapshotName).toPath());
+    }
+
+    private static File getSnapshotFile(SQLite3GlobalState globalState, String snapshotName) {
+        return new File("." + File.separator + "databases", globalState.getDatabaseName() + "-" + snapshotName + ".db");
+    }
+
     @Override
     public String getDBMSName() {
         return "sqlite3";
@@ -348,7 +396,7 @@ public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLi
     @Override
     protected boolean addRowsToAllTables(SQLite3GlobalState globalState) throws Exception {
         List<SQLite3Table> tablesNoRow = globalState.getSchema().getDatabaseTables().stream()
-                .filter(t -> t.getNrRows(globalState) == 0).collect(Collectors.toList());
+                .filter(t -> t.isEmpty(globalState)).collect(Collectors.toList());
         for (SQLite3Table table : tablesNoRow) {
             SQLQueryAdapter queryAddRows = SQLite3InsertGenerator.insertRow(globalState, table);
             globalState.executeStatement(queryAddRows);
@@ -34,6 +34,7 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
     public static final List<String> ROWID_STRINGS = Collections
             .unmodifiableList(Arrays.asList("rowid", "_rowid_", "oid"));
     private final List<String> indexNames;
+    private final boolean canWritesAffectOtherTables;
 
     public List<String> getIndexNames() {
         return indexNames;
@@ -155,36 +156,56 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
             super(tables);
         }
 
-        public SQLite3RowValue getRandomRowValue(SQLConnection con) throws SQLException {
-            String randomRow = String.format("SELECT %s, %s FROM %s ORDER BY RANDOM() LIMIT 1", columnNamesAsString(
-                    c -> c.getTable().getName() + "." + c.getName() + " AS " + c.getTable().getName() + c.getName()),
-                    columnNamesAsString(c -> "typeof(" + c.getTable().getName() + "." + c.getName() + ")"),
-                    tableNamesAsString());
-            Map<SQLite3Column, SQLite3Constant> values = new HashMap<>();
+        /**
+         * Returns a random row of the cartesian product of the tables, which is composed of a random row of each
+         * table's sample of rows.
+         *
+         * @param con
+         *            the connection used to sample the rows of tables whose samples are outdated
+         * @param sampleSize
+         *            the maximum number of rows sampled per table
+         *
+         * @return the pivot row
+         *
+         * @throws SQLException
+         *             if sampling the rows fails
+         */
+        public SQLite3RowValue getRandomRowValue(SQLConnection con, int sampleSize) throws SQLException {
+            return new SQLite3RowValue(this, getRandomRowFromSamples(table -> sampleRows(con, table, sampleSize)));
+        }
+
+        private static List<Map<SQLite3Column, SQLite3Constant>> sampleRows(SQLConnection con, SQLite3Table table,
+                int sampleSize) throws SQLException {
+            SQLite3Tables tables = new SQLite3Tables(Arrays.asList(table));
+            List<SQLite3Column> columns = tables.getColumns();
+            String randomRows = String.format("SELECT %s, %s FROM %s ORDER BY RANDOM() LIMIT %d",
+                    tables.columnNamesAsString(c -> c.getTable().getName() + "." + c.getName() + " AS "
+                            + c.getTable().getName() + c.getName()),
+                    tables.columnNamesAsString(c -> "typeof(" + c.getTable().getName() + "." + c.getName() + ")"),
+                    tables.tableNamesAsString(), sampleSize);
+            List<Map<SQLite3Column, SQLite3Constant>> rows = new ArrayList<>();
             try (Statement s = con.createStatement()) {
                 ResultSet randomRowValues;
                 try {
-                    randomRowValues = s.executeQuery(randomRow);
+                    randomRowValues = s.executeQuery(randomRows);
                 } catch (SQLException e) {
                     throw new IgnoreMeException();
                 }
-                if (!randomRowValues.next()) {
-                    throw new IgnoreMeException();
-                    // throw new AssertionError("could not find random row! " + randomRow);
-                }
-                for (int i = 0; i < getColumns().size(); i++) {
-                    SQLite3Column column = getColumns().get(i);
-                    int columnIndex = randomRowValues.findColumn(column.getTable().getName() + column.getName());
-                    assert columnIndex == i + 1;
-                    String typeString = randomRowValues.getString(columnIndex + getColumns().size());
-                    SQLite3DataType valueType = getColumnType(typeString);
-                    SQLite3Constant constant = getConstant(randomRowValues, columnIndex, valueType);
-                    values.put(column, constant);
+                while (randomRowValues.next()) {
+                    Map<SQLite3Column, SQLite3Constant> values = new HashMap<>();
+                    for (int i = 0; i < columns.size(); i++) {
+                        SQLite3Column column = columns.get(i);
+                        int columnIndex = randomRowValues.findColumn(column.getTable().getName() + column.getName());
+                        assert columnIndex == i + 1;
+                        String typeString = randomRowValues.getString(columnIndex + columns.size());
+                        SQLite3DataType valueType = getColumnType(typeString);
+                        SQLite3Constant constant = getConstant(randomRowValues, columnIndex, valueType);
+                        values.put(column, constant);
+                    }
+                    rows.add(values);
                 }
-                assert !randomRowValues.next();
-                return new SQLite3RowValue(this, values);
             }
-
+            return rows;
         }
 
     }
@@ -254,8 +275,19 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
     }
 
     public SQLite3Schema(List<SQLite3Table> databaseTables, List<String> indexNames) {
+        this(databaseTables, indexNames, true);
+    }
+
+    private SQLite3Schema(List<SQLite3Table> databaseTables, List<String> indexNames,
+            boolean canWritesAffectOtherTables) {
         super(databaseTables);
         this.indexNames = indexNames;
+        this.canWritesAffectOtherTables = canWritesAffectOtherTables;
+    }
+
+    @Override
+    protected boolean canWritesAffectOtherTables() {
+        return canWritesAffectOtherTables;
     }
 
     @Override
@@ -272,10 +304,12 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
         List<SQLite3Table> databaseTables = new ArrayList<>();
         List<String> indexNames = new ArrayList<>();
         SQLConnection con = globalState.getConnection();
+        // triggers, foreign key actions, and virtual tables (e.g., dbstat) allow a write to affect other tables
+        boolean canWritesAffectOtherTables = false;
 
         try (Statement s = con.createStatement()) {
             try (ResultSet rs = s.executeQuery("SELECT name, type as category, sql FROM sqlite_master UNION "
-                    + "SELECT name, 'temp_table' as category, sql FROM sqlite_temp_master WHERE type='table' UNION SELECT name, 'view' as category, sql FROM sqlite_temp_master WHERE type='view' GROUP BY name;")) {
+                    + "SELECT name, 'temp_table' as category, sql FROM sqlite_temp_master WHERE type='table' UNION SELECT name, type as category, sql FROM sqlite_temp_master WHERE type='trigger' UNION SELECT name, 'view' as category, sql FROM sqlite_temp_master WHERE type='view' GROUP BY name;")) {
                 while (rs.next()) {
                     String tableName = rs.getString("name");
                     String tableType = rs.getString("category");
@@ -284,6 +318,9 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
                         continue;
                     }
                     String sqlString = rs.getString("sql") == null ? "" : rs.getString("sql").toLowerCase();
+                    if (tableType.equals("trigger") || sqlString.contains("references")) {
+                        canWritesAffectOtherTables = true;
+                    }
                     if (tableName.startsWith("sqlite_") || tableType.equals("index") || tableType.equals("trigger")
                             || tableName.endsWith("_idx") || tableName.endsWith("_docsize")
                             || tableName.endsWith("_content") || tableName.endsWith("_data")
@@ -301,6 +338,7 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
                     boolean withoutRowid = sqlString.contains("without rowid");
                     boolean isView = tableType.contentEquals("view");
                     boolean isVirtual = sqlString.contains("virtual");
+                    canWritesAffectOtherTables |= isVirtual;
                     boolean isDbStatsTable = sqlString.contains("using dbstat");
                     List<SQLite3Column> databaseColumns = getTableColumns(con, tableName, sqlString, isView,
                             isDbStatsTable);
@@ -320,6 +358,7 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
                 }
             } catch (SQLException e) {
                 // ignore
+                canWritesAffectOtherTables = true;
             }
             try (ResultSet rs = s.executeQuery(
                     "SELECT name FROM SQLite_master WHERE type = 'index' UNION SELECT name FROM sqlite_temp_master WHERE type='index'")) {
@@ -337,7 +376,7 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
             }
         }
 
-        return new SQLite3Schema(databaseTables, indexNames);
+        return new SQLite3Schema(databaseTables, indexNames, canWritesAffectOtherTables);
     }
 
     // https://www.sqlite.org/rowidtable.html
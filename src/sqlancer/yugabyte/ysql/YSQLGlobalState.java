@@ -9,10 +9,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import sqlancer.Randomly;
 import sqlancer.SQLConnection;
 import sqlancer.SQLGlobalState;
+import sqlancer.common.schema.CatalogCache;
 
 public class YSQLGlobalState extends SQLGlobalState<YSQLOptions, YSQLSchema> {
 
@@ -24,15 +26,18 @@ public class YSQLGlobalState extends SQLGlobalState<YSQLOptions, YSQLSchema> {
     private List<String> operators = Collections.emptyList();
     private List<String> collates = Collections.emptyList();
     private List<String> opClasses = Collections.emptyList();
+    private String catalogCacheKey;
     private List<Character> allowedFunctionTypes = Arrays.asList(IMMUTABLE, STABLE, VOLATILE);
 
     @Override
     public void setConnection(SQLConnection con) {
         super.setConnection(con);
         try {
-            this.opClasses = getOpclasses(getConnection());
-            this.operators = getOperators(getConnection());
-            this.collates = getCollnames(getConnection());
+            this.catalogCacheKey = getCatalogCacheKey(getConnection());
+            this.opClasses = getCatalogValues("select opcname FROM pg_opclass;");
+            this.operators = getCatalogValues("SELECT oprname FROM pg_operator;");
+            this.collates = getCatalogValues(
+                    "SELECT collname FROM pg_collation WHERE collname LIKE '%utf8' or collname = 'C';");
         } catch (SQLException e) {
             throw new AssertionError(e);
         }
@@ -43,41 +48,37 @@ public class YSQLGlobalState extends SQLGlobalState<YSQLOptions, YSQLSchema> {
         return YSQLSchema.fromConnection(getConnection(), getDatabaseName());
     }
 
-    private List<String> getCollnames(SQLConnection con) throws SQLException {
-        List<String> opClasses = new ArrayList<>();
+    // the built-in catalog of a newly-created database only depends on the server version and the extensions
+    private static String getCatalogCacheKey(SQLConnection con) throws SQLException {
+        List<String> extensions = new ArrayList<>();
         try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s
-                    .executeQuery("SELECT collname FROM pg_collation WHERE collname LIKE '%utf8' or collname = 'C';")) {
+            try (ResultSet rs = s.executeQuery("SELECT extname, extversion FROM pg_extension;")) {
                 while (rs.next()) {
-                    opClasses.add(rs.getString(1));
+                    extensions.add(rs.getString(1) + " " + rs.getString(2));
                 }
             }
         }
-        return opClasses;
-    }
-
-    private List<String> getOpclasses(SQLConnection con) throws SQLException {
-        List<String> opClasses = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery("select opcname FROM pg_opclass;")) {
-                while (rs.next()) {
-                    opClasses.add(rs.getString(1));
-                }
-            }
-        }
-        return opClasses;
-    }
-
-    private List<String> getOperators(SQLConnection con) throws SQLException {
-        List<String> opClasses = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery("SELECT oprname FROM pg_operator;")) {
-                while (rs.next()) {
-                    opClasses.add(rs.getString(1));
-                }
-            }
-        }
-        return opClasses;
+        return CatalogCache.getKey("ysql", con.getDatabaseVersion(), extensions);
+    }
+
+    private List<String> getCatalogValues(String query) throws SQLException {
+        return getCatalogRows(query).stream().map(row -> row.get(0)).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the rows of a query on the built-in catalog, which is executed only once per process for each server
+     * version and set of installed extensions (see {@link CatalogCache}).
+     *
+     * @param query
+     *            the catalog query
+     *
+     * @return the rows of the query
+     *
+     * @throws SQLException
+     *             if executing the query fails
+     */
+    public List<List<String>> getCatalogRows(String query) throws SQLException {
+        return CatalogCache.getShared().getRows(catalogCacheKey, getConnection(), query);
     }
 
     public List<String> getOperators() {
@@ -7,6 +7,7 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Arrays;
+import java.util.List;
 
 import com.google.auto.service.AutoService;
 
@@ -19,9 +20,9 @@ import sqlancer.SQLConnection;
 import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
 import sqlancer.common.DBMSCommon;
+import sqlancer.common.ReadinessProbe;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
-import sqlancer.common.query.SQLancerResultSet;
 import sqlancer.yugabyte.ysql.gen.YSQLAlterTableGenerator;
 import sqlancer.yugabyte.ysql.gen.YSQLAnalyzeGenerator;
 import sqlancer.yugabyte.ysql.gen.YSQLCommentGenerator;
@@ -46,6 +47,9 @@ public class YSQLProvider extends SQLProviderAdapter<YSQLGlobalState, YSQLOption
 
     // TODO Due to yugabyte problems with parallel DDL we need this lock object
     public static final Object DDL_LOCK = new Object();
+    // errors of DDL statements that conflict with concurrent ones, which can succeed when they are retried
+    private static final List<String> CONCURRENT_DDL_ERRORS = List.of("Catalog Version Mismatch",
+            "catalog snapshot used for this transaction has been invalidated", "is being accessed by other users");
     /**
      * Generate only data types and expressions that are understood by PQS.
      */
@@ -181,15 +185,13 @@ public class YSQLProvider extends SQLProviderAdapter<YSQLGlobalState, YSQLOption
             throw new AssertionError(e);
         }
 
-        createDatabaseSync(globalState, entryDatabaseName);
-
         int databaseIndex = entryURL.indexOf("/" + entryDatabaseName) + 1;
         String preDatabaseName = entryURL.substring(0, databaseIndex);
         String postDatabaseName = entryURL.substring(databaseIndex + entryDatabaseName.length());
         testURL = preDatabaseName + databaseName + postDatabaseName;
+        Connection con = createDatabaseSync(globalState, entryDatabaseName);
         globalState.getState().logStatement(String.format("\\c %s;", databaseName));
-
-        return new SQLConnection(createConnectionSafely(testURL, username, password));
+        return new SQLConnection(con);
     }
 
     @Override
@@ -197,83 +199,92 @@ public class YSQLProvider extends SQLProviderAdapter<YSQLGlobalState, YSQLOption
         return "ysql";
     }
 
-    // for some reason yugabyte unable to create few databases simultaneously
-    private void createDatabaseSync(YSQLGlobalState globalState, String entryDatabaseName) throws SQLException {
+    // for some reason yugabyte unable to create few databases simultaneously, so the creation is retried until it
+    // succeeds, and the next database is created only once this one accepts queries
+    private Connection createDatabaseSync(YSQLGlobalState globalState, String entryDatabaseName) throws SQLException {
         synchronized (DDL_LOCK) {
-            exceptionLessSleep(5000);
-
-            Connection con = createConnectionSafely(entryURL, username, password);
             globalState.getState().logStatement(String.format("\\c %s;", entryDatabaseName));
             globalState.getState().logStatement("DROP DATABASE IF EXISTS " + databaseName);
             createDatabaseCommand = getCreateDatabaseCommand(globalState);
             globalState.getState().logStatement(createDatabaseCommand);
-            try (Statement s = con.createStatement()) {
-                s.execute("DROP DATABASE IF EXISTS " + databaseName);
-            }
-            try (Statement s = con.createStatement()) {
-                s.execute(createDatabaseCommand);
+            try (Connection entryCon = createConnectionSafely(entryURL, username, password)) {
+                ReadinessProbe.awaitReady(() -> {
+                    try (Statement s = entryCon.createStatement()) {
+                        s.execute("DROP DATABASE IF EXISTS " + databaseName);
+                        s.execute(createDatabaseCommand);
+                    }
+                    return true;
+                }, YSQLProvider::isConcurrentDDLError, ReadinessProbe.DEFAULT_TIMEOUT_MILLIS);
             }
-            con.close();
-        }
-    }
-
-    private Connection createConnectionSafely(String entryURL, String user, String password) {
-        Connection con = null;
-        IllegalStateException lastException = new IllegalStateException("Empty exception");
-        long endTime = System.currentTimeMillis() + 30000;
-        while (System.currentTimeMillis() < endTime) {
+            Connection con = createConnectionSafely(testURL, username, password);
             try {
-                con = DriverManager.getConnection(entryURL, user, password);
-                break;
-            } catch (SQLException throwables) {
-                lastException = new IllegalStateException(throwables);
+                ReadinessProbe.awaitReady(() -> {
+                    try (Statement s = con.createStatement()) {
+                        s.execute("SELECT 1");
+                    }
+                    return true;
+                }, ReadinessProbe.DEFAULT_TIMEOUT_MILLIS);
+            } catch (SQLException e) {
+                con.close();
+                throw e;
             }
+            return con;
         }
+    }
 
-        if (con == null) {
-            throw lastException;
-        }
+    // other errors, such as those caused by unsupported options of the CREATE DATABASE command, are not retried
+    private static boolean isConcurrentDDLError(SQLException e) {
+        String message = e.getMessage();
+        return message != null && CONCURRENT_DDL_ERRORS.stream().anyMatch(message::contains);
+    }
 
-        return con;
+    private Connection createConnectionSafely(String url, String user, String password) throws SQLException {
+        return ReadinessProbe.poll(() -> DriverManager.getConnection(url, user, password),
+                ReadinessProbe.DEFAULT_TIMEOUT_MILLIS);
     }
 
     protected void readFunctions(YSQLGlobalState globalState) throws SQLException {
-        SQLQueryAdapter query = new SQLQueryAdapter("SELECT proname, provolatile FROM pg_proc;");
-        SQLancerResultSet rs = query.executeAndGet(globalState);
-        while (rs.next()) {
-            String functionName = rs.getString(1);
-            Character functionType = rs.getString(2).charAt(0);
-            globalState.addFunctionAndType(functionName, functionType);
+        for (List<String> row : globalState.getCatalogRows("SELECT proname, provolatile FROM pg_proc;")) {
+            globalState.addFunctionAndType(row.get(0), row.get(1).charAt(0));
         }
     }
 
     protected void createTables(YSQLGlobalState globalState, int numTables) throws Exception {
         synchronized (DDL_LOCK) {
-            boolean prevCreationFailed = false; // small optimization - wait only after failed requests
             while (globalState.getSchema().getDatabaseTables().size() < numTables) {
-                if (!prevCreationFailed) {
-                    exceptionLessSleep(5000);
-                }
-
                 try {
                     String tableName = DBMSCommon.createTableName(globalState.getSchema().getDatabaseTables().size());
                     SQLQueryAdapter createTable = YSQLTableGenerator.generate(tableName, generateOnlyKnown,
                             globalState);
-                    globalState.executeStatement(createTable);
-                    prevCreationFailed = false;
+                    if (globalState.executeStatement(createTable)) {
+                        awaitTableReady(globalState, tableName);
+                    }
                 } catch (IgnoreMeException e) {
-                    prevCreationFailed = true;
+
                 }
             }
         }
     }
 
-    private void exceptionLessSleep(long timeout) {
-        try {
-            Thread.sleep(timeout);
-        } catch (InterruptedException e) {
-            throw new AssertionError();
-        }
+    /**
+     * Waits until a newly-created table can be queried, so that subsequent DDL statements do not collide with the
+     * propagation of its catalog changes.
+     *
+     * @param globalState
+     *            the global state
+     * @param tableName
+     *            the name of the table
+     *
+     * @throws SQLException
+     *             if the table cannot be queried within the timeout
+     */
+    public static void awaitTableReady(YSQLGlobalState globalState, String tableName) throws SQLException {
+        ReadinessProbe.awaitReady(() -> {
+            try (Statement s = globalState.getConnection().createStatement()) {
+                s.execute("SELECT * FROM " + tableName + " LIMIT 0");
+            }
+            return true;
+        }, ReadinessProbe.DEFAULT_TIMEOUT_MILLIS);
     }
 
     protected void prepareTables(YSQLGlobalState globalState) throws Exception {
@@ -52,19 +52,16 @@ public class YSQLCatalog implements TestOracle<YSQLGlobalState> {
         synchronized (DDL_LOCK) {
             while (globalState.getSchema().getDatabaseTables().size() < numTables) {
                 // TODO concurrent DDLs may produce a lot of noise in test logs so its disabled right now
-                // added timeout to avoid possible catalog collisions
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    throw new AssertionError();
-                }
-
+                // wait until the table is visible to avoid possible catalog collisions
                 try {
                     String tableName = DBMSCommon.createTableName(globalState.getSchema().getDatabaseTables().size());
                     SQLQueryAdapter createTable = YSQLTableGenerator.generate(tableName, true, globalState);
-                    globalState.executeStatement(createTable);
+                    boolean created = globalState.executeStatement(createTable);
                     globalState.getManager().incrementSelectQueryCount();
                     globalState.executeStatement(new SQLQueryAdapter("COMMIT", true));
+                    if (created) {
+                        YSQLProvider.awaitTableReady(globalState, tableName);
+                    }
                 } catch (IgnoreMeException e) {
                     // do nothing
                 }
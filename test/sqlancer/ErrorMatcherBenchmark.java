@@ -0,0 +1,86 @@
+package sqlancer;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import sqlancer.common.query.ExpectedErrors;
+import sqlancer.sqlite3.SQLite3Errors;
+
+/**
+ * Compares the time that a statement spends on its expected errors, from adding them to an {@link ExpectedErrors} to
+ * checking the error message that the statement resulted in, with and without the shared matchers. The baseline scans
+ * the substrings and regexes of each statement linearly, as {@link ExpectedErrors} did before the matchers were
+ * introduced.
+ *
+ * This is not a unit test; run it with <code>java -cp target/classes:target/test-classes:&lt;dependencies&gt;
+ * sqlancer.ErrorMatcherBenchmark</code>.
+ */
+public final class ErrorMatcherBenchmark {
+
+    private static final int NR_STATEMENTS = 1_000_000;
+    private static final int NR_ROUNDS = 5;
+    private static final Pattern SYNTAX_ERROR = Pattern.compile("near \".*\": syntax error");
+    private static final String[] MESSAGES = { "[SQLITE_ERROR] SQL error or missing database (no such column: c0)",
+            "[SQLITE_CONSTRAINT] Abort due to constraint violation (UNIQUE constraint failed: t0.c0)",
+            "[SQLITE_ERROR] SQL error or missing database (near \"x\": syntax error)", "internal failure" };
+
+    private ErrorMatcherBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        for (int round = 0; round < NR_ROUNDS; round++) {
+            long baselineNanos = measure(true);
+            long matcherNanos = measure(false);
+            System.out.printf("round %d: linear scan %d ns/statement, shared matcher %d ns/statement%n", round,
+                    baselineNanos / NR_STATEMENTS, matcherNanos / NR_STATEMENTS);
+        }
+    }
+
+    private static long measure(boolean baseline) {
+        int nrExpected = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < NR_STATEMENTS; i++) {
+            String message = MESSAGES[i % MESSAGES.length];
+            if (baseline ? isExpectedByLinearScan(message) : isExpectedBySharedMatcher(message)) {
+                nrExpected++;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        if (nrExpected != NR_STATEMENTS / MESSAGES.length * 3) {
+            throw new AssertionError(nrExpected);
+        }
+        return nanos;
+    }
+
+    private static boolean isExpectedBySharedMatcher(String message) {
+        ExpectedErrors errors = new ExpectedErrors();
+        SQLite3Errors.addExpectedExpressionErrors(errors);
+        SQLite3Errors.addQueryErrors(errors);
+        SQLite3Errors.addInsertUpdateErrors(errors);
+        errors.addRegex(SYNTAX_ERROR);
+        return errors.errorIsExpected(message);
+    }
+
+    // the baseline, which copies the expected errors into sets like ExpectedErrors does
+    private static boolean isExpectedByLinearScan(String message) {
+        Set<String> errors = new HashSet<>();
+        errors.addAll(SQLite3Errors.getExpectedExpressionErrors());
+        errors.addAll(SQLite3Errors.getQueryErrors());
+        errors.addAll(SQLite3Errors.getInsertUpdateErrors());
+        Set<Pattern> regexes = new HashSet<>();
+        regexes.add(SYNTAX_ERROR);
+        for (String error : errors) {
+            if (message.contains(error)) {
+                return true;
+            }
+        }
+        for (Pattern regex : regexes) {
+            if (regex.matcher(message).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,68 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sqlancer.common.schema.CatalogCache;
+
+public class TestCatalogCache {
+
+    private static final String QUERY = "SELECT X, NULL FROM SYSTEM_RANGE(1, 3) ORDER BY X";
+
+    @Test
+    public void testQueryIsExecutedOncePerKey() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:catalogcachetest")) {
+            AtomicInteger nrStatements = new AtomicInteger();
+            SQLConnection con = new SQLConnection(countStatements(connection, nrStatements));
+            CatalogCache cache = new CatalogCache();
+            String key = CatalogCache.getKey("h2", "1.0", List.of("b", "a"));
+            List<List<String>> rows = cache.getRows(key, con, QUERY);
+            assertEquals(List.of("1", "2", "3"), List.of(rows.get(0).get(0), rows.get(1).get(0), rows.get(2).get(0)));
+            assertEquals(rows, cache.getRows(CatalogCache.getKey("h2", "1.0", List.of("a", "b")), con, QUERY));
+            assertEquals(1, nrStatements.get());
+            cache.getRows(CatalogCache.getKey("h2", "1.1", List.of("a", "b")), con, QUERY);
+            assertEquals(2, nrStatements.get());
+        }
+    }
+
+    @Test
+    public void testPersistedEntriesAreReused(@TempDir Path directory) throws SQLException, IOException {
+        Path file = directory.resolve("catalog.cache");
+        String key = CatalogCache.getKey("h2", "1.0", List.of());
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:catalogcachepersistencetest")) {
+            AtomicInteger nrStatements = new AtomicInteger();
+            SQLConnection con = new SQLConnection(countStatements(connection, nrStatements));
+            CatalogCache cache = new CatalogCache();
+            cache.persistTo(file);
+            List<List<String>> rows = cache.getRows(key, con, QUERY);
+            CatalogCache laterRun = new CatalogCache();
+            laterRun.persistTo(file);
+            assertEquals(rows, laterRun.getRows(key, con, QUERY));
+            assertEquals(1, nrStatements.get());
+            assertEquals(null, rows.get(0).get(1));
+        }
+    }
+
+    // counts the statements created, each of which corresponds to a round-trip
+    private Connection countStatements(Connection connection, AtomicInteger nrStatements) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("createStatement")) {
+                        nrStatements.incrementAndGet();
+                    }
+                    return method.invoke(connection, args);
+                });
+    }
+
+}
@@ -0,0 +1,47 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.schema.CatalogReader;
+
+public class TestCatalogReader {
+
+    @Test
+    public void testReadByTableUsesSingleRoundTrip() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:catalogreadertest")) {
+            try (Statement s = connection.createStatement()) {
+                for (int i = 0; i < 10; i++) {
+                    s.execute(String.format("CREATE TABLE T%d(C0 INT, C1 INT, C2 VARCHAR)", i));
+                }
+            }
+            AtomicInteger nrStatements = new AtomicInteger();
+            // counts the statements created, each of which corresponds to a round-trip
+            Connection countingConnection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        if (method.getName().equals("createStatement")) {
+                            nrStatements.incrementAndGet();
+                        }
+                        return method.invoke(connection, args);
+                    });
+            Map<String, List<String>> columns = CatalogReader.readByTable(new SQLConnection(countingConnection),
+                    "SELECT TABLE_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = 'PUBLIC' ORDER BY COLUMN_NAME",
+                    "TABLE_NAME", rs -> rs.getString("COLUMN_NAME").equals("C2") ? null : rs.getString("COLUMN_NAME"));
+            assertEquals(1, nrStatements.get());
+            assertEquals(10, columns.size());
+            assertEquals(List.of("C0", "C1"), CatalogReader.getValues(columns, "T3"));
+            assertEquals(List.of(), CatalogReader.getValues(columns, "T10"));
+        }
+    }
+
+}
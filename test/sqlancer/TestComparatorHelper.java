@@ -1,5 +1,7 @@
 package sqlancer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 
 import java.sql.SQLException;
@@ -60,6 +62,23 @@ public class TestComparatorHelper {
         });
     }
 
+    @Test
+    public void testAssumeResultSetsAreEqualWithDifferentMultiplicities() {
+        List<String> r1 = Arrays.asList("a", "a", "b");
+        List<String> r2 = Arrays.asList("a", "b", "b");
+        // see above for why a NullPointerException is raised
+        assertThrowsExactly(NullPointerException.class, () -> {
+            ComparatorHelper.assumeResultSetsAreEqual(r1, r2, "", Arrays.asList(""), state);
+        });
+    }
+
+    @Test
+    public void testAssumeResultSetsAreEqualWithDifferentOrder() {
+        List<String> r1 = Arrays.asList("a", null, "b", "a");
+        List<String> r2 = Arrays.asList("b", "a", "a", null);
+        ComparatorHelper.assumeResultSetsAreEqual(r1, r2, "", Arrays.asList(""), state);
+    }
+
     @Test
     public void testAssumeResultSetsAreEqualWithCanonicalizationRule() {
         List<String> r1 = Arrays.asList("a", "b", "c");
@@ -69,4 +88,47 @@ public class TestComparatorHelper {
         });
     }
 
+    @Test
+    public void testRemoveTrailingZeros() {
+        for (String value : Arrays.asList("1.000", "1.0", "1.500", "10", "100.", ".0", "0", "", "a.0\n", "1.0\r\n",
+                "-0.00", "1.05", "x0")) {
+            assertEquals(value.replaceAll("[\\.]0+$", ""), ComparatorHelper.removeTrailingZeros(value), value);
+        }
+    }
+
+    @Test
+    public void testFingerprintIgnoresOrder() {
+        MultisetFingerprint f1 = new MultisetFingerprint();
+        MultisetFingerprint f2 = new MultisetFingerprint();
+        for (String value : Arrays.asList("a", null, "b", "a")) {
+            f1.add(value);
+        }
+        for (String value : Arrays.asList("a", "a", null, "b")) {
+            f2.add(value);
+        }
+        assertEquals(f1, f2);
+    }
+
+    @Test
+    public void testFingerprintDetectsDifferentValues() {
+        MultisetFingerprint f1 = new MultisetFingerprint();
+        MultisetFingerprint f2 = new MultisetFingerprint();
+        // "Aa" and "BB" have the same String.hashCode()
+        f1.add("Aa");
+        f2.add("BB");
+        assertNotEquals(f1, f2);
+    }
+
+    @Test
+    public void testRowString() {
+        assertEquals("a", ComparatorHelper.getRowString("a"));
+        assertEquals(null, ComparatorHelper.getRowString((String) null));
+        assertEquals("1|a", ComparatorHelper.getRowString("1", "a"));
+        assertEquals("\\N|", ComparatorHelper.getRowString(null, ""));
+        // rows that differ only in how the values are split into columns have different representations
+        assertNotEquals(ComparatorHelper.getRowString("a|", "b"), ComparatorHelper.getRowString("a", "|b"));
+        assertNotEquals(ComparatorHelper.getRowString("\\N", "b"), ComparatorHelper.getRowString(null, "b"));
+        assertNotEquals(ComparatorHelper.getRowString("a\\", "b"), ComparatorHelper.getRowString("a", "\\b"));
+    }
+
 }
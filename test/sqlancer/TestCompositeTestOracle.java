@@ -0,0 +1,65 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.beust.jcommander.JCommander;
+
+import sqlancer.common.oracle.CompositeTestOracle;
+import sqlancer.common.oracle.TestOracle;
+import sqlancer.h2.H2Provider.H2GlobalState;
+
+public class TestCompositeTestOracle {
+
+    private static final int NR_CHECKS = 2000;
+
+    private static H2GlobalState createGlobalState(String... args) {
+        MainOptions options = new MainOptions();
+        JCommander.newBuilder().addObject(options).build().parse(args);
+        H2GlobalState state = new H2GlobalState();
+        state.setMainOptions(options);
+        return state;
+    }
+
+    // checks the composite oracle repeatedly, and returns how often each of the oracles was checked
+    private static int[] runChecks(H2GlobalState state) throws Exception {
+        int[] nrChecks = new int[2];
+        TestOracle<H2GlobalState> unproductive = () -> {
+            nrChecks[0]++;
+            throw new IgnoreMeException();
+        };
+        TestOracle<H2GlobalState> productive = () -> nrChecks[1]++;
+        CompositeTestOracle<H2GlobalState> composite = new CompositeTestOracle<>(List.of(unproductive, productive),
+                state);
+        for (int i = 0; i < NR_CHECKS; i++) {
+            try {
+                composite.check();
+            } catch (IgnoreMeException e) {
+                // the unproductive oracle was checked
+            }
+        }
+        return nrChecks;
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+        int[] nrChecks = runChecks(createGlobalState());
+        assertEquals(NR_CHECKS / 2, nrChecks[0]);
+        assertEquals(NR_CHECKS / 2, nrChecks[1]);
+    }
+
+    @Test
+    public void testAdaptiveSchedulingPrefersProductiveOracle() throws Exception {
+        int[] nrChecks = runChecks(createGlobalState("--adaptive-oracle-scheduling", "true"));
+        assertEquals(NR_CHECKS, nrChecks[0] + nrChecks[1]);
+        assertTrue(nrChecks[1] > NR_CHECKS * 0.8, () -> "the productive oracle was checked " + nrChecks[1] + " times");
+        // the exploration share keeps checking the unproductive oracle
+        assertTrue(nrChecks[0] > NR_CHECKS * 0.02,
+                () -> "the unproductive oracle was checked " + nrChecks[0] + " times");
+    }
+
+}
@@ -0,0 +1,87 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.beust.jcommander.JCommander;
+
+public class TestDatabaseRetirementPolicy {
+
+    private static DatabaseRetirementPolicy createPolicy(String... args) {
+        MainOptions options = new MainOptions();
+        JCommander.newBuilder().addObject(options).build().parse(args);
+        return new DatabaseRetirementPolicy(options);
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(createPolicy().isEnabled());
+    }
+
+    @Test
+    public void testIgnoredRatio() {
+        DatabaseRetirementPolicy policy = createPolicy("--database-retirement-window", "4",
+                "--database-retirement-ignored-ratio", "0.5");
+        assertTrue(policy.isEnabled());
+        for (int i = 0; i < 3; i++) {
+            policy.recordCheck(true);
+            // the window is not full yet
+            assertFalse(policy.shouldRetire());
+        }
+        policy.recordCheck(true);
+        assertTrue(policy.shouldRetire());
+
+        // the ignored checks slide out of the window; a ratio equal to the threshold keeps the database
+        policy.recordCheck(false);
+        assertTrue(policy.shouldRetire());
+        policy.recordCheck(false);
+        assertFalse(policy.shouldRetire());
+        policy.recordCheck(true);
+        assertFalse(policy.shouldRetire());
+        policy.recordCheck(true);
+        assertFalse(policy.shouldRetire());
+        policy.recordCheck(true);
+        assertTrue(policy.shouldRetire());
+    }
+
+    @Test
+    public void testMinChecksPerSecond() {
+        DatabaseRetirementPolicy slow = createPolicy("--database-retirement-window", "2",
+                "--database-retirement-ignored-ratio", "1", "--database-retirement-min-checks-per-second", "1e12");
+        slow.recordCheck(false);
+        assertFalse(slow.shouldRetire());
+        slow.recordCheck(false);
+        assertTrue(slow.shouldRetire());
+
+        DatabaseRetirementPolicy fast = createPolicy("--database-retirement-window", "2",
+                "--database-retirement-ignored-ratio", "1", "--database-retirement-min-checks-per-second", "0.001");
+        fast.recordCheck(false);
+        fast.recordCheck(false);
+        assertFalse(fast.shouldRetire());
+        // ignored checks do not count as completed ones
+        fast.recordCheck(true);
+        fast.recordCheck(true);
+        assertTrue(fast.shouldRetire());
+    }
+
+    @Test
+    public void testChecksPerSecondIncludeFirstCheckInWindow() {
+        MainOptions options = new MainOptions();
+        JCommander.newBuilder().addObject(options).build().parse("--database-retirement-window", "2",
+                "--database-retirement-ignored-ratio", "1", "--database-retirement-min-checks-per-second", "1");
+        long[] now = { 0 };
+        DatabaseRetirementPolicy policy = new DatabaseRetirementPolicy(options, () -> now[0]);
+        // one check per second, measured from the start of testing and then from the check before the window
+        for (int i = 0; i < 4; i++) {
+            now[0] += 1_000_000_000L;
+            policy.recordCheck(false);
+        }
+        assertFalse(policy.shouldRetire());
+        now[0] += 1_000_000_001L;
+        policy.recordCheck(false);
+        assertTrue(policy.shouldRetire());
+    }
+
+}
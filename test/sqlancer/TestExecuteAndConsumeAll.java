@@ -0,0 +1,159 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.beust.jcommander.JCommander;
+
+import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.h2.H2Options;
+import sqlancer.h2.H2Provider.H2GlobalState;
+
+/**
+ * Checks both paths of {@link SQLQueryAdapter#executeAndConsumeAll} against an in-memory H2 database. H2 does not
+ * support several queries in a single round-trip and only executes the first query of a batch, so that the pipelined
+ * path has to execute the remaining queries one after the other.
+ */
+public class TestExecuteAndConsumeAll {
+
+    private static final List<String> QUERIES = List.of("SELECT 1", "SELECT c0 FROM t0", "SELECT 3");
+
+    // records the strings that are executed, and pretends that several queries can be sent in a single round-trip
+    private static final class RecordingConnection extends SQLConnection {
+
+        private final boolean multiStatementQueries;
+        private final List<String> executed = new ArrayList<>();
+
+        RecordingConnection(Connection connection, boolean multiStatementQueries) {
+            super(connection);
+            this.multiStatementQueries = multiStatementQueries;
+        }
+
+        @Override
+        public boolean supportsMultiStatementQueries() {
+            return multiStatementQueries;
+        }
+
+        @Override
+        public Statement createStatement() throws SQLException {
+            Statement statement = super.createStatement();
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    new Class<?>[] { Statement.class }, (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            executed.add((String) args[0]);
+                        }
+                        try {
+                            return method.invoke(statement, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    private static RecordingConnection createConnection(boolean multiStatementQueries) throws SQLException {
+        RecordingConnection con = new RecordingConnection(DriverManager.getConnection("jdbc:h2:mem:"),
+                multiStatementQueries);
+        try (Statement s = con.createStatement()) {
+            s.execute("CREATE TABLE t0(c0 INT)");
+            s.execute("INSERT INTO t0 VALUES (2)");
+        }
+        con.executed.clear();
+        return con;
+    }
+
+    private static H2GlobalState createGlobalState(SQLConnection con, String... args) {
+        MainOptions options = new MainOptions();
+        JCommander.newBuilder().addObject(options).build().parse(args);
+        H2GlobalState state = new H2GlobalState();
+        state.setMainOptions(options);
+        state.setDbmsSpecificOptions(new H2Options());
+        state.setConnection(con);
+        return state;
+    }
+
+    private static List<String> executeAll(H2GlobalState state, List<String> queries) throws SQLException {
+        List<String> values = new ArrayList<>();
+        assertTrue(SQLQueryAdapter.executeAndConsumeAll(state, queries, new ExpectedErrors(), (i, result) -> {
+            assertEquals(values.size(), i);
+            assertTrue(result.next());
+            values.add(result.getString(1));
+        }));
+        return values;
+    }
+
+    @Test
+    public void testSequential() throws SQLException {
+        try (RecordingConnection con = createConnection(false)) {
+            H2GlobalState state = createGlobalState(con);
+            assertEquals(List.of("1", "2", "3"), executeAll(state, QUERIES));
+            assertEquals(List.of("SELECT 1;", "SELECT c0 FROM t0;", "SELECT 3;"), con.executed);
+        }
+    }
+
+    @Test
+    public void testPipelined() throws SQLException {
+        try (RecordingConnection con = createConnection(true)) {
+            H2GlobalState state = createGlobalState(con);
+            assertEquals(List.of("1", "2", "3"), executeAll(state, QUERIES));
+            // the first query was answered by the batch
+            assertEquals(List.of("SELECT 1; SELECT c0 FROM t0; SELECT 3;", "SELECT c0 FROM t0;", "SELECT 3;"),
+                    con.executed);
+        }
+    }
+
+    @Test
+    public void testPipelinedWithoutCanonicalization() throws SQLException {
+        try (RecordingConnection con = createConnection(true)) {
+            H2GlobalState state = createGlobalState(con, "--canonicalize-sql-strings", "false");
+            assertEquals(List.of("1", "2", "3"), executeAll(state, QUERIES));
+            assertEquals(List.of("SELECT 1; SELECT c0 FROM t0; SELECT 3", "SELECT c0 FROM t0", "SELECT 3"),
+                    con.executed);
+        }
+    }
+
+    @Test
+    public void testPipelinedComment() throws SQLException {
+        try (RecordingConnection con = createConnection(true)) {
+            H2GlobalState state = createGlobalState(con);
+            assertEquals(List.of("1", "3"), executeAll(state, List.of("SELECT 1 -- comment", "SELECT 3")));
+            assertEquals(List.of("SELECT 1 -- comment", "SELECT 3;"), con.executed);
+        }
+    }
+
+    @Test
+    public void testPipelinedUpdateCount() throws SQLException {
+        try (RecordingConnection con = createConnection(true)) {
+            H2GlobalState state = createGlobalState(con);
+            assertThrows(IgnoreMeException.class, () -> executeAll(state, List.of("DELETE FROM t0", "SELECT 1")));
+            // the batch is not executed again
+            assertEquals(1, con.executed.size());
+        }
+    }
+
+    @Test
+    public void testPipelinedExpectedError() throws SQLException {
+        try (RecordingConnection con = createConnection(true)) {
+            H2GlobalState state = createGlobalState(con);
+            assertFalse(SQLQueryAdapter.executeAndConsumeAll(state, List.of("SELECT c1 FROM t0", "SELECT 1"),
+                    ExpectedErrors.from("not found"), (i, result) -> {
+                        throw new AssertionError();
+                    }));
+        }
+    }
+
+}
@@ -1,8 +1,10 @@
 package sqlancer;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -156,4 +158,96 @@ public class TestExpectedErrors {
         assertTrue(errors.errorIsExpected("c"));
         assertFalse(errors.errorIsExpected("aa"));
     }
+
+    @Test
+    public void testOverlappingStrings() {
+        ExpectedErrors errors = ExpectedErrors.from("abcx", "bcd", "she", "hers");
+        assertTrue(errors.errorIsExpected("xabcd"));
+        assertTrue(errors.errorIsExpected("ushers"));
+        assertTrue(errors.errorIsExpected("xhe hers"));
+        assertFalse(errors.errorIsExpected("abcbc"));
+        assertFalse(errors.errorIsExpected("sh her"));
+    }
+
+    @Test
+    public void testAddAfterCheck() {
+        ExpectedErrors errors = new ExpectedErrors();
+        errors.add("a");
+        assertFalse(errors.errorIsExpected("b"));
+        errors.add("b");
+        assertTrue(errors.errorIsExpected("b"));
+        errors.addRegexString("c\\d");
+        assertTrue(errors.errorIsExpected("c1"));
+    }
+
+    @Test
+    public void testRegexesWithFlagsAndGroups() {
+        ExpectedErrors errors = new ExpectedErrors();
+        errors.addRegex(Pattern.compile("violated", Pattern.CASE_INSENSITIVE));
+        errors.addRegexString("(a)\\1");
+        errors.addRegexString("x|y");
+        assertTrue(errors.errorIsExpected("VIOLATED"));
+        assertTrue(errors.errorIsExpected("baa"));
+        assertFalse(errors.errorIsExpected("ab"));
+        assertTrue(errors.errorIsExpected("y"));
+    }
+
+    @Test
+    public void testContentsWithCollidingHashes() {
+        // "Aa" and "BB" have the same hash code, so the matchers of these errors are interned under the same hash
+        ExpectedErrors first = ExpectedErrors.from("Aa");
+        ExpectedErrors second = ExpectedErrors.from("BB");
+        assertTrue(first.errorIsExpected("xAa"));
+        assertFalse(second.errorIsExpected("xAa"));
+        assertTrue(second.errorIsExpected("xBB"));
+        assertFalse(first.errorIsExpected("xBB"));
+    }
+
+    @Test
+    public void testSameContentsInDifferentOrder() {
+        ExpectedErrors first = new ExpectedErrors();
+        first.add("a").add("b").addRegexString("c\\d");
+        ExpectedErrors second = new ExpectedErrors();
+        second.addRegexString("c\\d").add("b").add("a").add("a");
+        for (String error : List.of("a", "b", "c1", "cc", "d")) {
+            assertEquals(first.errorIsExpected(error), second.errorIsExpected(error));
+        }
+    }
+
+    @Test
+    public void testRegexesWithSameSource() {
+        ExpectedErrors caseSensitive = new ExpectedErrors();
+        caseSensitive.addRegexString("violated");
+        ExpectedErrors caseInsensitive = new ExpectedErrors();
+        caseInsensitive.addRegex(Pattern.compile("violated", Pattern.CASE_INSENSITIVE));
+        assertFalse(caseSensitive.errorIsExpected("VIOLATED"));
+        assertTrue(caseInsensitive.errorIsExpected("VIOLATED"));
+
+        ExpectedErrors both = new ExpectedErrors();
+        both.addRegexString("violated");
+        both.addRegex(Pattern.compile("violated", Pattern.CASE_INSENSITIVE));
+        assertTrue(both.errorIsExpected("VIOLATED"));
+        assertFalse(caseSensitive.errorIsExpected("VIOLATED"));
+    }
+
+    @Test
+    public void testSharedLists() {
+        List<String> shared = List.of("a", "b");
+        ExpectedErrors errors = new ExpectedErrors();
+        errors.addAll(shared).addAll(shared).add("c");
+        assertTrue(errors.errorIsExpected("xb"));
+        assertTrue(errors.errorIsExpected("c"));
+        assertFalse(errors.errorIsExpected("d"));
+
+        // the same errors in a different list
+        ExpectedErrors copied = new ExpectedErrors();
+        copied.addAll(new ArrayList<>(shared));
+        assertTrue(copied.errorIsExpected("xb"));
+        assertFalse(copied.errorIsExpected("c"));
+
+        ExpectedErrors other = new ExpectedErrors();
+        other.addAll(List.of("d"));
+        assertTrue(other.errorIsExpected("d"));
+        assertFalse(other.errorIsExpected("a"));
+    }
 }
@@ -0,0 +1,39 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class TestLatencyHistogram {
+
+    @Test
+    public void testBucketBoundaries() {
+        // bucket i contains the latencies from 2^i to 2^(i+1) - 1 nanoseconds
+        assertEquals(0, LatencyHistogram.getBucket(-1));
+        assertEquals(0, LatencyHistogram.getBucket(0));
+        assertEquals(0, LatencyHistogram.getBucket(1));
+        assertEquals(1, LatencyHistogram.getBucket(2));
+        assertEquals(1, LatencyHistogram.getBucket(3));
+        assertEquals(2, LatencyHistogram.getBucket(4));
+        assertEquals(9, LatencyHistogram.getBucket(1023));
+        assertEquals(10, LatencyHistogram.getBucket(1024));
+        assertEquals(62, LatencyHistogram.getBucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(0.5));
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+        // the upper bounds of the buckets from 64 to 127 and from 4096 to 8191 nanoseconds
+        assertEquals(127, histogram.getPercentileNanos(0.5));
+        assertEquals(127, histogram.getPercentileNanos(0.99));
+        assertEquals(8191, histogram.getPercentileNanos(1));
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getPercentileNanos(1));
+    }
+
+}
@@ -0,0 +1,40 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TestMutatorRewards {
+
+    @Test
+    public void testUpdate() {
+        MutatorRewards rewards = new MutatorRewards(0, 0, 0);
+        rewards.update(1, 1.0, 0.25);
+        rewards.add(2, 0.1);
+        assertEquals(0.25, rewards.get(1));
+        assertEquals(1, rewards.getMaxIndex());
+    }
+
+    @Test
+    public void testConcurrentAdd() throws InterruptedException {
+        MutatorRewards rewards = new MutatorRewards(0);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    rewards.add(0, 1);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, rewards.get(0));
+    }
+
+}
@@ -0,0 +1,32 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.oracle.TestOracle;
+import sqlancer.h2.H2Provider.H2GlobalState;
+
+public class TestOracleStatistics {
+
+    @Test
+    public void testRecordsOutcomes() throws Exception {
+        OracleStatistics statistics = OracleStatistics.get("test", "outcomes");
+        TestOracle<H2GlobalState> passing = statistics.recording(() -> {
+        });
+        TestOracle<H2GlobalState> ignored = statistics.recording(() -> {
+            throw new IgnoreMeException();
+        });
+        TestOracle<H2GlobalState> failing = statistics.recording(() -> {
+            throw new AssertionError();
+        });
+        passing.check();
+        passing.check();
+        assertThrows(IgnoreMeException.class, ignored::check);
+        assertThrows(AssertionError.class, failing::check);
+        // four checks, one of which failed and one of which was ignored
+        assertTrue(OracleStatistics.getCsv().contains(System.lineSeparator() + "oracle,test/outcomes,4,1,1,"));
+    }
+
+}
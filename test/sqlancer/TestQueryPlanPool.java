@@ -0,0 +1,107 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class TestQueryPlanPool {
+
+    @Test
+    public void testAdd() {
+        QueryPlanPool pool = new QueryPlanPool(10);
+        assertTrue(pool.add("SCAN t0", "SELECT * FROM t0", Set.of("t0")));
+        assertFalse(pool.add("SCAN t0", "SELECT c0 FROM t0", Set.of("t0")));
+        assertTrue(pool.add("SEARCH t0 USING INDEX i0", "SELECT * FROM t0 WHERE c0 = 1", Set.of("t0")));
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyObservedPlan() {
+        QueryPlanPool pool = new QueryPlanPool(2);
+        pool.add("plan a", "a", Set.of("t0"));
+        pool.add("plan b", "b", Set.of("t0"));
+        pool.add("plan a", "a", Set.of("t0"));
+        pool.add("plan c", "c", Set.of("t0"));
+        assertEquals(2, pool.size());
+        assertFalse(pool.add("plan a", "a", Set.of("t0")));
+        assertTrue(pool.add("plan b", "b", Set.of("t0")));
+    }
+
+    @Test
+    public void testRecheck() throws Exception {
+        QueryPlanPool pool = new QueryPlanPool(10);
+        pool.add("plan a", "a", Set.of("t0"));
+        pool.add("plan b", "b", Set.of("t0"));
+        pool.add("plan c", "c", Set.of("t0"));
+        // a keeps its plan, b is now invalid, and c has a new plan
+        int newPlans = pool.recheck(query -> {
+            switch (query) {
+            case "a":
+                return "plan a";
+            case "b":
+                return "";
+            default:
+                return "plan d";
+            }
+        }, null, -1);
+        assertEquals(1, newPlans);
+        assertEquals(2, pool.size());
+        assertFalse(pool.add("plan d", "c", Set.of("t0")));
+        assertTrue(pool.add("plan b", "b", Set.of("t0")));
+    }
+
+    @Test
+    public void testRecheckOnlyAffectedQueries() throws Exception {
+        QueryPlanPool pool = new QueryPlanPool(10);
+        pool.add("plan a", "a", Set.of("t0"));
+        pool.add("plan b", "b", Set.of("t1"));
+        pool.add("plan c", "c", Set.of("t0", "t1"));
+        List<String> rechecked = new ArrayList<>();
+        pool.recheck(query -> {
+            rechecked.add(query);
+            return "plan " + query;
+        }, Set.of("t1"), -1);
+        assertEquals(List.of("b", "c"), rechecked);
+        assertEquals(3, pool.getLastNrConsidered());
+
+        rechecked.clear();
+        pool.recheck(query -> {
+            rechecked.add(query);
+            return "plan " + query;
+        }, null, 1);
+        assertEquals(1, rechecked.size());
+        assertEquals(1, pool.getLastNrConsidered());
+    }
+
+    @Test
+    public void testSharedPlans() {
+        QueryPlanPool first = new QueryPlanPool(10, 100);
+        QueryPlanPool second = new QueryPlanPool(10, 100);
+        QueryPlanPool unshared = new QueryPlanPool(10);
+        assertTrue(first.add("shared plan a", "a", Set.of("t0")));
+        assertFalse(second.add("shared plan a", "a", Set.of("t0")));
+        assertTrue(second.add("shared plan b", "b", Set.of("t0")));
+        assertTrue(unshared.add("shared plan a", "a", Set.of("t0")));
+        // the query is kept for rechecks although the plan was not new
+        assertEquals(2, second.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyObservedSharedPlan() {
+        QueryPlanPool first = new QueryPlanPool(10, 2);
+        QueryPlanPool second = new QueryPlanPool(10, 2);
+        assertTrue(first.add("evicted plan a", "a", Set.of("t0")));
+        assertTrue(first.add("evicted plan b", "b", Set.of("t0")));
+        // observing a again makes b the least recently observed plan
+        assertFalse(second.add("evicted plan a", "a", Set.of("t0")));
+        assertTrue(second.add("evicted plan c", "c", Set.of("t0")));
+        assertTrue(second.add("evicted plan b", "b", Set.of("t0")));
+    }
+
+}
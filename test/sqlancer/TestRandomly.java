@@ -9,10 +9,13 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Test;
 
@@ -223,6 +226,51 @@ public class TestRandomly {
         }
     }
 
+    @Test
+    public void testLongCache() {
+        Randomly.LongCache cache = new Randomly.LongCache(3);
+        assertTrue(cache.isEmpty());
+        cache.add(-1);
+        cache.add(-1);
+        cache.add(Long.MIN_VALUE);
+        // the cache is insert-only, so values are not added anymore once it is full
+        cache.add(2);
+        cache.add(3);
+        assertEquals(Set.of(-1L, Long.MIN_VALUE, 2L), getCachedValues(cache::getRandom));
+    }
+
+    @Test
+    public void testStringCacheEvictsOldest() {
+        Randomly.StringCache cache = new Randomly.StringCache(3);
+        assertTrue(cache.isEmpty());
+        cache.add("a");
+        cache.add("b");
+        cache.add("a");
+        cache.add("c");
+        assertEquals(Set.of("a", "b", "c"), getCachedValues(cache::getRandom));
+        cache.add("d");
+        assertEquals(Set.of("b", "c", "d"), getCachedValues(cache::getRandom));
+        // an evicted string can be added again, and then evicts the next-oldest one
+        cache.add("a");
+        assertEquals(Set.of("c", "d", "a"), getCachedValues(cache::getRandom));
+    }
+
+    @Test
+    public void testDisabledStringCache() {
+        Randomly.StringCache cache = new Randomly.StringCache(0);
+        cache.add("a");
+        assertTrue(cache.isEmpty());
+    }
+
+    // samples the cache often enough that every value is picked with overwhelming probability
+    private static <T> Set<T> getCachedValues(Supplier<T> cache) {
+        Set<T> values = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(cache.get());
+        }
+        return values;
+    }
+
     private List<String> getRandomValueList(Randomly r) {
         List<String> values = new ArrayList<>();
         for (int i = 0; i < 1000; i++) {
@@ -0,0 +1,52 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.ReadinessProbe;
+
+public class TestReadinessProbe {
+
+    @Test
+    public void testPollUntilReady() throws SQLException {
+        AtomicInteger nrAttempts = new AtomicInteger();
+        String value = ReadinessProbe.poll(() -> {
+            int attempt = nrAttempts.incrementAndGet();
+            if (attempt == 1) {
+                throw new SQLException("database does not exist");
+            }
+            return attempt == 2 ? null : "ready";
+        }, ReadinessProbe.DEFAULT_TIMEOUT_MILLIS);
+        assertEquals("ready", value);
+        assertEquals(3, nrAttempts.get());
+    }
+
+    @Test
+    public void testNonTransientExceptionIsNotRetried() {
+        AtomicInteger nrAttempts = new AtomicInteger();
+        SQLException error = new SQLException("invalid locale name");
+        SQLException e = assertThrows(SQLException.class, () -> ReadinessProbe.awaitReady(() -> {
+            if (nrAttempts.incrementAndGet() == 1) {
+                throw new SQLException("database is being accessed by other users");
+            }
+            throw error;
+        }, ex -> ex.getMessage().contains("being accessed"), ReadinessProbe.DEFAULT_TIMEOUT_MILLIS));
+        assertEquals(error, e);
+        assertEquals(2, nrAttempts.get());
+    }
+
+    @Test
+    public void testTimeout() {
+        SQLException cause = new SQLException("database does not exist");
+        SQLException e = assertThrows(SQLException.class, () -> ReadinessProbe.awaitReady(() -> {
+            throw cause;
+        }, 50));
+        assertEquals(cause, e.getCause());
+    }
+
+}
@@ -0,0 +1,100 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.schema.AbstractSchema;
+import sqlancer.duckdb.DuckDBProvider.DuckDBGlobalState;
+import sqlancer.duckdb.DuckDBSchema.DuckDBTable;
+
+public class TestRegisterWrite {
+
+    private static final class RecordingTable extends DuckDBTable {
+
+        private final Map<String, Boolean> writes;
+
+        RecordingTable(String name, Map<String, Boolean> writes) {
+            super(name, List.of(), false);
+            this.writes = writes;
+        }
+
+        @Override
+        public void registerWrite(boolean canRemoveRows) {
+            super.registerWrite(canRemoveRows);
+            writes.put(getName(), canRemoveRows);
+        }
+    }
+
+    // the tables whose row counts the statement invalidates, and whether the statement could have removed rows
+    private static Map<String, Boolean> getWrites(String query) {
+        Map<String, Boolean> writes = new HashMap<>();
+        new AbstractSchema<DuckDBGlobalState, DuckDBTable>(
+                List.of(new RecordingTable("t0", writes), new RecordingTable("t1", writes))).registerWrite(query);
+        return writes;
+    }
+
+    @Test
+    public void testInsert() {
+        assertEquals(Map.of("t0", false), getWrites("INSERT OR REPLACE INTO t0(c0) VALUES (1)"));
+        assertEquals(Map.of("t1", false), getWrites("REPLACE INTO t1 VALUES (1)"));
+        assertEquals(Map.of("t1", false), getWrites("  insert into t1 values (1)"));
+        assertEquals(Map.of("t0", false), getWrites("INSERT INTO t0(c0) SELECT c0 FROM t1"));
+    }
+
+    @Test
+    public void testUpdate() {
+        assertEquals(Map.of("t0", false), getWrites("UPDATE OR IGNORE t0 SET c0 = 1"));
+        assertEquals(Map.of("t1", false), getWrites("UPDATE ONLY t1 SET c0 = (SELECT c0 FROM t0)"));
+    }
+
+    @Test
+    public void testDeleteAndTruncate() {
+        assertEquals(Map.of("t1", true), getWrites("DELETE FROM t1 WHERE c0 = 1"));
+        assertEquals(Map.of("t0", true), getWrites("TRUNCATE TABLE t0"));
+        assertEquals(Map.of("t1", true), getWrites("TRUNCATE t1"));
+    }
+
+    @Test
+    public void testQualifiedAndQuotedNames() {
+        assertEquals(Map.of("t0", false), getWrites("INSERT INTO main.t0 VALUES (1)"));
+        assertEquals(Map.of("t1", true), getWrites("DELETE FROM \"public\".\"t1\""));
+        assertEquals(Map.of("t0", false), getWrites("INSERT INTO \"t0\"(c0) VALUES (1)"));
+        assertEquals(Map.of("t1", false), getWrites("UPDATE `t1` SET c0 = 1"));
+        assertEquals(Map.of("t0", true), getWrites("DELETE FROM [t0]"));
+    }
+
+    @Test
+    public void testUnknownTarget() {
+        assertEquals(Map.of("t0", false, "t1", false), getWrites("INSERT INTO t2 VALUES (1)"));
+        assertEquals(Map.of("t0", true, "t1", true), getWrites("UPSERT INTO t0 VALUES (1)"));
+        assertEquals(Map.of("t0", true, "t1", true), getWrites("ROLLBACK"));
+        assertEquals(Map.of(), getWrites("SELECT * FROM t0"));
+        assertEquals(Map.of(), getWrites("CREATE TABLE t2(c0 INT)"));
+    }
+
+    @Test
+    public void testSeveralTargets() {
+        assertEquals(Map.of("t0", true, "t1", true), getWrites("UPDATE t0, t1 SET t0.c0 = 1, t1.c0 = 2"));
+        assertEquals(Map.of("t0", true, "t1", true),
+                getWrites("UPDATE t0 a LEFT JOIN t1 ON a.c0 = t1.c0 SET a.c0 = 1"));
+        assertEquals(Map.of("t0", true, "t1", true), getWrites("DELETE t1 FROM t0 JOIN t1 ON t0.c0 = t1.c0"));
+        assertEquals(Map.of("t0", true, "t1", true), getWrites("TRUNCATE t0, t1"));
+        // the other tables are only read
+        assertEquals(Map.of("t0", false), getWrites("INSERT INTO t0 SELECT c0 FROM t1 JOIN t1 AS t2 ON TRUE"));
+        assertEquals(Map.of("t0", false), getWrites("UPDATE t0 AS a SET c0 = 1, c1 = 2 FROM t1"));
+        assertEquals(Map.of("t1", true), getWrites("DELETE FROM t1 WHERE c0 IN (1, 2)"));
+    }
+
+    @Test
+    public void testWith() {
+        assertEquals(Map.of("t0", true, "t1", true), getWrites("WITH x AS (SELECT 1) INSERT INTO t0 SELECT * FROM x"));
+        assertEquals(Map.of("t0", true, "t1", true), getWrites("with x as (delete from t1 returning *) select 1"));
+        assertEquals(Map.of(), getWrites("WITH x AS (SELECT 1) SELECT * FROM x"));
+    }
+
+}
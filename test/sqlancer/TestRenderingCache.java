@@ -0,0 +1,69 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.visitor.RenderingCache;
+import sqlancer.common.visitor.ToStringVisitor;
+
+public class TestRenderingCache {
+
+    private static final class Node {
+
+        private final String text;
+        private final List<Node> children;
+
+        Node(String text, Node... children) {
+            this.text = text;
+            this.children = List.of(children);
+        }
+    }
+
+    private static final class CountingVisitor extends ToStringVisitor<Node> {
+
+        private static int nrVisitedNodes;
+
+        @Override
+        public void visitSpecific(Node node) {
+            nrVisitedNodes++;
+            sb.append(node.text);
+            if (!node.children.isEmpty()) {
+                sb.append('(');
+                visit(node.children);
+                sb.append(')');
+            }
+        }
+
+        static String asString(Node node) {
+            CountingVisitor visitor = new CountingVisitor();
+            visitor.visit(node);
+            return visitor.get();
+        }
+    }
+
+    @Test
+    public void testRegisteredNodesAreRenderedOnce() {
+        Node predicate = new Node("f", new Node("c0"), new Node("c1"));
+        Node fromList = new Node("t0");
+        CountingVisitor.nrVisitedNodes = 0;
+        String first;
+        String second;
+        try (RenderingCache cache = RenderingCache.open()) {
+            cache.register(List.of(predicate, fromList));
+            first = CountingVisitor.asString(new Node("select", fromList, predicate));
+            second = CountingVisitor.asString(new Node("select", fromList, new Node("not", predicate)));
+        }
+        assertEquals("select(t0, f(c0, c1))", first);
+        assertEquals("select(t0, not(f(c0, c1)))", second);
+        // the registered nodes and their children are visited only by the first query
+        assertEquals(7, CountingVisitor.nrVisitedNodes);
+
+        CountingVisitor.nrVisitedNodes = 0;
+        assertEquals(second, CountingVisitor.asString(new Node("select", fromList, new Node("not", predicate))));
+        assertEquals(6, CountingVisitor.nrVisitedNodes);
+    }
+
+}
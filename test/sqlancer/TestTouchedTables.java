@@ -0,0 +1,49 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.duckdb.DuckDBSchema.DuckDBTable;
+
+public class TestTouchedTables {
+
+    private static final List<DuckDBTable> TABLES = List.of(new DuckDBTable("t0", List.of(), false),
+            new DuckDBTable("t1", List.of(), false), new DuckDBTable("v0", List.of(), true));
+
+    @Test
+    public void testReferencedTables() {
+        assertEquals(Set.of("t0", "v0"),
+                ProviderAdapter.getReferencedTables("SELECT * FROM t0, v0 WHERE t0.c0", TABLES));
+        assertEquals(Set.of(), ProviderAdapter.getReferencedTables("SELECT * FROM t00", TABLES));
+    }
+
+    @Test
+    public void testViewsAreTouchedWithTheirTables() throws Exception {
+        Set<String> touchedTables = ProviderAdapter.getTouchedTables(List.of("INSERT INTO t1(c0) VALUES (1)"), TABLES);
+        assertEquals(Set.of("t1", "v0"), touchedTables);
+
+        // a query on the view, which could be defined on t1, is rechecked after t1 was modified
+        QueryPlanPool pool = new QueryPlanPool(10);
+        pool.add("plan a", "SELECT * FROM t0", Set.of("t0"));
+        pool.add("plan b", "SELECT * FROM v0", Set.of("v0"));
+        List<String> rechecked = new ArrayList<>();
+        pool.recheck(query -> {
+            rechecked.add(query);
+            return "plan " + query;
+        }, touchedTables, -1);
+        assertEquals(List.of("SELECT * FROM v0"), rechecked);
+    }
+
+    @Test
+    public void testStatementWithoutTable() {
+        assertNull(ProviderAdapter.getTouchedTables(List.of("INSERT INTO t0(c0) VALUES (1)", "PRAGMA foo"), TABLES));
+        assertEquals(Set.of(), ProviderAdapter.getTouchedTables(List.of(), TABLES));
+    }
+
+}
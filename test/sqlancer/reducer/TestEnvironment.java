@@ -110,6 +110,12 @@ public class TestEnvironment {
         }
     }
 
+    public void setStatementReducerThreads(int nrThreads) throws Exception {
+        Field field = options.getClass().getDeclaredField("nrStatementReducerThreads");
+        field.setAccessible(true);
+        field.set(options, nrThreads);
+    }
+
     public void setInitialStatementsFromStrings(List<String> statements) {
         List<Query<?>> queries = new ArrayList<>();
         for (String s : statements) {
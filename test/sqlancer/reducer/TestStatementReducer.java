@@ -50,6 +50,28 @@ public class TestStatementReducer {
         assertEquals(queriesString, "Statement_29;");
     }
 
+    @Test
+    void testDeltaDebuggingInParallel() throws Exception {
+        TestEnvironment env = TestEnvironment.getStatementReducerEnv();
+        env.setStatementReducerThreads(4);
+        List<String> fakeStatements = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String statement = "Statement_" + i + ";";
+            fakeStatements.add(statement);
+        }
+
+        env.setInitialStatementsFromStrings(fakeStatements);
+        env.setBugInducingCondition(statements -> {
+            String queries = TestEnvironment.getQueriesString(statements);
+            return queries.contains("Statement_29;") && queries.contains("Statement_730;");
+        });
+
+        env.runReduce();
+        List<Query<?>> reducedQueries = env.getReducedStatements();
+        String queriesString = TestEnvironment.getQueriesString(reducedQueries);
+        assertEquals("Statement_29;\nStatement_730;", queriesString);
+    }
+
     @Test
     void testDeltaDebuggingWithStatementsCombination() throws Exception {
         TestEnvironment env = TestEnvironment.getStatementReducerEnv();
@@ -0,0 +1,188 @@
+package sqlancer.reducer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.Main;
+import sqlancer.MainOptions;
+import sqlancer.Reproducer;
+import sqlancer.SQLConnection;
+import sqlancer.StatementReducer;
+import sqlancer.common.query.Query;
+import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.h2.H2Options;
+import sqlancer.h2.H2Provider;
+import sqlancer.h2.H2Provider.H2GlobalState;
+import sqlancer.sqlite3.SQLite3GlobalState;
+import sqlancer.sqlite3.SQLite3Options;
+import sqlancer.sqlite3.SQLite3Provider;
+
+/**
+ * Checks that the statement reducer reaches the same result whether or not it restores snapshots of common statement
+ * prefixes, including when the statements create state of the connection that a snapshot cannot capture. Also checks
+ * that an H2 snapshot can be restored.
+ */
+public class TestStatementReducerSnapshots {
+
+    private static final String DATABASE_NAME = "reducer-snapshots";
+
+    private static final class CountingProvider extends SQLite3Provider {
+
+        private final boolean snapshots;
+        private int nrRestoredSnapshots;
+
+        CountingProvider(boolean snapshots) {
+            this.snapshots = snapshots;
+        }
+
+        @Override
+        public boolean supportsSnapshots() {
+            return snapshots;
+        }
+
+        @Override
+        public SQLConnection restoreSnapshot(SQLite3GlobalState globalState, String snapshotName) throws SQLException {
+            nrRestoredSnapshots++;
+            return super.restoreSnapshot(globalState, snapshotName);
+        }
+    }
+
+    @Test
+    public void testTableContents() throws Exception {
+        List<String> statements = new ArrayList<>();
+        statements.add("CREATE TABLE t0(c0)");
+        addUnrelatedStatements(statements, 1);
+        statements.add("INSERT INTO t0 VALUES (1)");
+        addUnrelatedStatements(statements, 10);
+        statements.add("INSERT INTO t0 VALUES (2)");
+        addUnrelatedStatements(statements, 20);
+        List<String> reduced = assertEqualReductions(statements, "SELECT SUM(c0) FROM t0", "3", true);
+        assertEquals(List.of("CREATE TABLE t0(c0);", "INSERT INTO t0 VALUES (1);", "INSERT INTO t0 VALUES (2);"),
+                reduced);
+    }
+
+    @Test
+    public void testPragma() throws Exception {
+        List<String> statements = new ArrayList<>();
+        statements.add("PRAGMA case_sensitive_like = 1");
+        addUnrelatedStatements(statements, 1);
+        List<String> reduced = assertEqualReductions(statements, "SELECT 'a' LIKE 'A'", "0", false);
+        assertEquals(List.of("PRAGMA case_sensitive_like = 1;"), reduced);
+    }
+
+    @Test
+    public void testTemporaryTable() throws Exception {
+        List<String> statements = new ArrayList<>();
+        statements.add("CREATE TEMP TABLE t0(c0)");
+        addUnrelatedStatements(statements, 1);
+        statements.add("INSERT INTO t0 VALUES (1)");
+        addUnrelatedStatements(statements, 10);
+        List<String> reduced = assertEqualReductions(statements, "SELECT COUNT(*) FROM temp.t0", "1", false);
+        assertEquals(List.of("CREATE TEMP TABLE t0(c0);", "INSERT INTO t0 VALUES (1);"), reduced);
+    }
+
+    @Test
+    public void testH2Snapshot() throws Exception {
+        H2Provider provider = new H2Provider();
+        H2GlobalState state = new H2GlobalState();
+        state.setDatabaseName(DATABASE_NAME);
+        state.setMainOptions(new MainOptions());
+        state.setDbmsSpecificOptions(new H2Options());
+        state.setState(provider.getStateToReproduce(DATABASE_NAME));
+        try (SQLConnection con = provider.createDatabase(state)) {
+            state.setConnection(con);
+            new SQLQueryAdapter("CREATE TABLE t0(c0 INT)").execute(state);
+            new SQLQueryAdapter("INSERT INTO t0 VALUES (1)").execute(state);
+            assertTrue(provider.takeSnapshot(state, "checkpoint"));
+        }
+        try (SQLConnection con = provider.restoreSnapshot(state, "checkpoint"); Statement s = con.createStatement();
+                ResultSet rs = s.executeQuery("SELECT SUM(c0) FROM t0")) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+        } finally {
+            provider.deleteSnapshot(state, "checkpoint");
+        }
+    }
+
+    private static void addUnrelatedStatements(List<String> statements, int firstTable) {
+        for (int i = firstTable; i < firstTable + 4; i++) {
+            statements.add("CREATE TABLE t" + i + "(c0)");
+        }
+    }
+
+    // reduces the statements with and without snapshots, and returns the reduced statements
+    private static List<String> assertEqualReductions(List<String> statements, String query, String expectedValue,
+            boolean expectSnapshots) throws Exception {
+        CountingProvider withSnapshots = new CountingProvider(true);
+        List<String> reducedWithSnapshots = reduce(withSnapshots, statements, query, expectedValue);
+        CountingProvider withoutSnapshots = new CountingProvider(false);
+        List<String> reducedWithoutSnapshots = reduce(withoutSnapshots, statements, query, expectedValue);
+        assertEquals(reducedWithoutSnapshots, reducedWithSnapshots);
+        assertEquals(expectSnapshots, withSnapshots.nrRestoredSnapshots != 0);
+        assertEquals(0, withoutSnapshots.nrRestoredSnapshots);
+        assertFalse(new File("databases", DATABASE_NAME + "-reduce-checkpoint.db").exists());
+        return reducedWithSnapshots;
+    }
+
+    private static List<String> reduce(SQLite3Provider provider, List<String> statements, String query,
+            String expectedValue) throws Exception {
+        MainOptions options = new MainOptions();
+        Field useReducer = MainOptions.class.getDeclaredField("useReducer");
+        useReducer.setAccessible(true);
+        useReducer.set(options, true);
+
+        SQLite3GlobalState state = createGlobalState(provider, options);
+        List<Query<?>> queries = new ArrayList<>();
+        for (String statement : statements) {
+            queries.add(new SQLQueryAdapter(statement));
+        }
+        state.getState().setStatements(queries);
+        SQLite3GlobalState newGlobalState = createGlobalState(provider, options);
+        newGlobalState.setStateLogger(new Main.StateLogger(DATABASE_NAME, provider, options));
+
+        Reproducer<SQLite3GlobalState> reproducer = globalState -> queryReturns(globalState, query, expectedValue);
+        try (SQLConnection con = provider.createDatabase(state)) {
+            state.setConnection(con);
+            for (Query<?> statement : queries) {
+                ((SQLQueryAdapter) statement).execute(state);
+            }
+            assertTrue(reproducer.bugStillTriggers(state));
+        }
+        new StatementReducer<>(provider).reduce(state, reproducer, newGlobalState);
+
+        List<String> reduced = new ArrayList<>();
+        for (Query<?> statement : newGlobalState.getState().getStatements()) {
+            reduced.add(statement.getQueryString());
+        }
+        return reduced;
+    }
+
+    private static SQLite3GlobalState createGlobalState(SQLite3Provider provider, MainOptions options) {
+        SQLite3GlobalState globalState = new SQLite3GlobalState();
+        globalState.setDatabaseName(DATABASE_NAME);
+        globalState.setMainOptions(options);
+        globalState.setDbmsSpecificOptions(new SQLite3Options());
+        globalState.setState(provider.getStateToReproduce(DATABASE_NAME));
+        return globalState;
+    }
+
+    private static boolean queryReturns(SQLite3GlobalState globalState, String query, String expectedValue) {
+        try (Statement s = globalState.getConnection().createStatement(); ResultSet rs = s.executeQuery(query)) {
+            return rs.next() && expectedValue.equals(rs.getString(1));
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+}